@@ -0,0 +1,81 @@
+package edu.unifor.br.distrischool.authservice.benchmark;
+
+import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.repository.TokenRevocationRepository;
+import edu.unifor.br.distrischool.authservice.security.AccessTokenDenyList;
+import edu.unifor.br.distrischool.authservice.security.AuthUser;
+import edu.unifor.br.distrischool.authservice.security.BearerTokenAuthenticator;
+import edu.unifor.br.distrischool.authservice.security.JwtAuthenticationFilter;
+import edu.unifor.br.distrischool.authservice.security.VerifiedTokenCache;
+import edu.unifor.br.distrischool.authservice.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Monta os serviços fora do contexto Spring, com os mesmos valores padrão do
+ * application.yml, para que os benchmarks meçam só o código da aplicação.
+ */
+final class BenchmarkFixtures {
+
+    static final String SECRET = "benchmark-secret-with-at-least-64-bytes-for-hs512-signatures-0123456789";
+    static final long EXPIRATION = 3_600_000L;
+    static final long REFRESH_EXPIRATION = 86_400_000L;
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtService jwtService() {
+        return jwtService("HMAC");
+    }
+
+    /**
+     * Com algoritmo assimétrico, o serviço gera um par de chaves efêmero
+     * ({@code jwt.keys.allow-ephemeral}).
+     */
+    static JwtService jwtService(String algorithm) {
+        JwtService jwtService = new JwtService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtService, "algorithm", algorithm);
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "allowEphemeralKeys", true);
+        ReflectionTestUtils.setField(jwtService, "retiredPublicKeyLocations", new String[0]);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", EXPIRATION);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", REFRESH_EXPIRATION);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        return jwtService;
+    }
+
+    static AuthUser authUser() {
+        return AuthUser.builder()
+                .id(42L)
+                .name("Aluno Exemplo")
+                .email("aluno.exemplo@unifor.br")
+                .password("{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z8e6QkHgqfmbNDMkE5gWyL6a")
+                .role(User.Role.STUDENT)
+                .emailVerified(true)
+                .enabled(true)
+                .build();
+    }
+
+    /**
+     * Filtro com deny-list vazia e {@code UserDetailsService} em memória, para que
+     * o resultado meça o filtro e não o banco.
+     */
+    static JwtAuthenticationFilter jwtAuthenticationFilter(JwtService jwtService, boolean trustClaims, boolean tokenCache) {
+        AuthUser user = authUser();
+
+        // stubOnly: o mock não guarda o histórico de chamadas durante a medição
+        TokenRevocationRepository repository = mock(TokenRevocationRepository.class, withSettings().stubOnly());
+        AccessTokenDenyList denyList = new AccessTokenDenyList(repository, new SimpleMeterRegistry(), EXPIRATION);
+        VerifiedTokenCache cache =
+                new VerifiedTokenCache(new SimpleMeterRegistry(), tokenCache, 100_000, Duration.ofMinutes(5));
+
+        BearerTokenAuthenticator authenticator = new BearerTokenAuthenticator(jwtService, username -> user, denyList, cache);
+        ReflectionTestUtils.setField(authenticator, "trustClaims", trustClaims);
+        return new JwtAuthenticationFilter(authenticator, new SimpleMeterRegistry());
+    }
+}
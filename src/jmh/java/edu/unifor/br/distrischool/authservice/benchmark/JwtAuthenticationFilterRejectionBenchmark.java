@@ -0,0 +1,88 @@
+package edu.unifor.br.distrischool.authservice.benchmark;
+
+import edu.unifor.br.distrischool.authservice.security.JwtAuthenticationFilter;
+import edu.unifor.br.distrischool.authservice.service.JwtService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do filtro para tokens que não autenticam, como em tráfego de varredura
+ * ou de clientes com tokens corrompidos:
+ * <ul>
+ *   <li>{@code garbage}: valor que não tem formato de JWT;</li>
+ *   <li>{@code oversized}: cabeçalho de 16 KB;</li>
+ *   <li>{@code alg-none}: token sem assinatura;</li>
+ *   <li>{@code foreign-alg}: assinado com um algoritmo que o serviço não usa;</li>
+ *   <li>{@code bad-signature}: token do serviço com a assinatura alterada, que
+ *   só pode ser recusado verificando a assinatura.</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterRejectionBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    @Param({"garbage", "oversized", "alg-none", "foreign-alg", "bad-signature"})
+    public String token;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        JwtService jwtService = BenchmarkFixtures.jwtService();
+        filter = BenchmarkFixtures.jwtAuthenticationFilter(jwtService, true, true);
+
+        String valid = jwtService.generateToken(BenchmarkFixtures.authUser());
+        String payload = valid.split("\\.")[1];
+        authorization = "Bearer " + switch (token) {
+            case "garbage" -> "undefined";
+            case "oversized" -> "a".repeat(16 * 1024);
+            case "alg-none" -> base64Url("{\"alg\":\"none\"}") + "." + payload + ".";
+            case "foreign-alg" -> BenchmarkFixtures.jwtService("RS256").generateToken(BenchmarkFixtures.authUser());
+            case "bad-signature" -> valid.substring(0, valid.length() - 4) + "AAAA";
+            default -> throw new IllegalArgumentException(token);
+        };
+    }
+
+    @Benchmark
+    public Object rejectedRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/me");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static String base64Url(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
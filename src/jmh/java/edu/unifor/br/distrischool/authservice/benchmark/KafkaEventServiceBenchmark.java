@@ -0,0 +1,62 @@
+package edu.unifor.br.distrischool.authservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.unifor.br.distrischool.authservice.dto.UserEvent;
+import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.repository.OutboxEventRepository;
+import edu.unifor.br.distrischool.authservice.service.KafkaEventService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Montagem e serialização do evento gravado na outbox a cada login e cadastro.
+ * O repositório é um mock, então não há I/O na medição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KafkaEventServiceBenchmark {
+
+    private KafkaEventService kafkaEventService;
+    private User user;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        kafkaEventService = new KafkaEventService(
+                mock(KafkaTemplate.class, withSettings().stubOnly()),
+                mock(OutboxEventRepository.class, withSettings().stubOnly()),
+                new ObjectMapper(),
+                new SimpleMeterRegistry()
+        );
+        user = User.builder()
+                .id(42L)
+                .name("Aluno Exemplo")
+                .email("aluno.exemplo@unifor.br")
+                .role(User.Role.STUDENT)
+                .build();
+    }
+
+    @Benchmark
+    public void publishUserEvent() {
+        kafkaEventService.publishUserEvent("user.logged_in", user);
+    }
+}
@@ -0,0 +1,80 @@
+package edu.unifor.br.distrischool.authservice.benchmark;
+
+import edu.unifor.br.distrischool.authservice.dto.UserEvent;
+import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.serialization.UserEventAvroSerializer;
+import edu.unifor.br.distrischool.authservice.serialization.UserEventDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara JSON e Avro na serialização de {@link UserEvent}. O tamanho das
+ * mensagens é impresso no setup; com {@code -prof gc} dá para ver a alocação
+ * por operação de cada formato.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserEventSerializationBenchmark {
+
+    private static final String TOPIC = "user.created";
+
+    private final JsonSerializer<UserEvent> jsonSerializer = new JsonSerializer<>();
+    private final UserEventAvroSerializer avroSerializer = new UserEventAvroSerializer();
+    private final UserEventDeserializer deserializer = new UserEventDeserializer();
+
+    private UserEvent event;
+    private byte[] json;
+    private byte[] avro;
+
+    @Setup
+    public void setup() {
+        jsonSerializer.setAddTypeInfo(false);
+        event = UserEvent.builder()
+                .eventType("USER_CREATED")
+                .userId(123456L)
+                .email("aluno.exemplo@unifor.br")
+                .name("Aluno Exemplo da Silva")
+                .role(User.Role.STUDENT)
+                .timestamp(LocalDateTime.now().toString())
+                .build();
+        json = jsonSerializer.serialize(TOPIC, event);
+        avro = avroSerializer.serialize(TOPIC, event);
+        System.out.printf("%nTamanho: json=%d bytes, avro=%d bytes%n", json.length, avro.length);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public byte[] serializeAvro() {
+        return avroSerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public UserEvent deserializeJson() {
+        return deserializer.deserialize(TOPIC, json);
+    }
+
+    @Benchmark
+    public UserEvent deserializeAvro() {
+        return deserializer.deserialize(TOPIC, avro);
+    }
+}
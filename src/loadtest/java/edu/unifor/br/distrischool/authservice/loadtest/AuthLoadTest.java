@@ -0,0 +1,259 @@
+package edu.unifor.br.distrischool.authservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Teste de carga ponta a ponta do auth-service.
+ *
+ * <p>Cenários, na ordem:
+ * <ul>
+ *   <li>{@code enrollment}: matrícula em massa, publicando {@code user.create} no
+ *   Kafka como o serviço de usuários faz; mede usuários criados por segundo;</li>
+ *   <li>{@code login-storm}: todos os alunos fazendo login ao mesmo tempo (8:00);</li>
+ *   <li>{@code refresh}: renovação de tokens;</li>
+ *   <li>{@code me}: requisições autenticadas;</li>
+ *   <li>{@code mixed}: 70% me, 20% login, 10% refresh.</li>
+ * </ul>
+ *
+ * <p>Argumentos no formato {@code chave=valor}: {@code users} (padrão 1000),
+ * {@code concurrency} (200), {@code duration} (30s), {@code partitions} (3) e
+ * {@code scenarios} (lista separada por vírgula).
+ *
+ * <p>O serviço não expõe {@code /auth/register}: usuários são cadastrados pelo
+ * evento {@code user.create}, então é esse o caminho exercitado aqui.
+ */
+public final class AuthLoadTest {
+
+    private static final String EMAIL_PATTERN = "aluno-%d@loadtest.local";
+    private static final String PASSWORD = "Senha@LoadTest1";
+    private static final Duration ENROLLMENT_TIMEOUT = Duration.ofMinutes(10);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final LoadTestEnvironment environment;
+    private final int users;
+    private final int concurrency;
+    private final Duration duration;
+
+    private final AtomicReferenceArray<String> accessTokens;
+    private final AtomicReferenceArray<String> refreshTokens;
+
+    private AuthLoadTest(LoadTestEnvironment environment, int users, int concurrency, Duration duration) {
+        this.environment = environment;
+        this.users = users;
+        this.concurrency = concurrency;
+        this.duration = duration;
+        this.accessTokens = new AtomicReferenceArray<>(users);
+        this.refreshTokens = new AtomicReferenceArray<>(users);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int users = Integer.parseInt(options.getOrDefault("users", "1000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        Duration duration = Duration.parse("PT" + options.getOrDefault("duration", "30s").toUpperCase());
+        int partitions = Integer.parseInt(options.getOrDefault("partitions", "3"));
+        if (users < concurrency) {
+            throw new IllegalArgumentException("users deve ser maior ou igual a concurrency");
+        }
+        List<String> scenarios = Arrays.asList(
+                options.getOrDefault("scenarios", "enrollment,login-storm,refresh,me,mixed").split(","));
+
+        List<LoadRunner.Result> results = new ArrayList<>();
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start(partitions)) {
+            AuthLoadTest test = new AuthLoadTest(environment, users, concurrency, duration);
+
+            // Os cenários HTTP precisam dos alunos cadastrados, mesmo que a matrícula não seja medida
+            test.enroll(scenarios.contains("enrollment"));
+
+            if (scenarios.contains("login-storm")) {
+                results.add(LoadRunner.run("login-storm", concurrency, duration, worker -> test.login(test.randomUser(worker))));
+            } else {
+                test.warmUpTokens();
+            }
+            if (scenarios.contains("refresh")) {
+                results.add(LoadRunner.run("refresh", concurrency, duration, worker -> test.refresh(test.randomUser(worker))));
+            }
+            if (scenarios.contains("me")) {
+                results.add(LoadRunner.run("me", concurrency, duration, worker -> test.me(test.randomUser(worker))));
+            }
+            if (scenarios.contains("mixed")) {
+                results.add(LoadRunner.run("mixed", concurrency, duration, test::mixed));
+            }
+
+            System.out.printf("%nEmails recebidos pelo SMTP: %d%n", environment.receivedMails());
+        }
+
+        System.out.println();
+        System.out.println(LoadRunner.Result.header());
+        results.forEach(System.out::println);
+    }
+
+    private void enroll(boolean report) throws Exception {
+        Map<String, Object> producerProps = new HashMap<>();
+        producerProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, environment.kafkaBootstrapServers());
+        producerProps.put(ProducerConfig.LINGER_MS_CONFIG, 10);
+
+        long start = System.nanoTime();
+        try (KafkaProducer<String, String> producer =
+                     new KafkaProducer<>(producerProps, new StringSerializer(), new StringSerializer())) {
+            for (int i = 0; i < users; i++) {
+                Map<String, Object> event = Map.of(
+                        "eventType", "user.create",
+                        "email", EMAIL_PATTERN.formatted(i),
+                        "name", "Aluno " + i,
+                        "role", "STUDENT",
+                        "password", PASSWORD
+                );
+                producer.send(new ProducerRecord<>("user.create", EMAIL_PATTERN.formatted(i),
+                        objectMapper.writeValueAsString(event)));
+            }
+        }
+
+        long deadline = System.nanoTime() + ENROLLMENT_TIMEOUT.toNanos();
+        long created;
+        while ((created = countEnrolled()) < users) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Matrícula incompleta: " + created + " de " + users);
+            }
+            Thread.sleep(200);
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        if (report) {
+            System.out.printf("%nenrollment: %d alunos em %.1fs (%.1f alunos/s)%n", users, seconds, users / seconds);
+        }
+
+        // Os alunos confirmariam o email pelo link antes do primeiro login
+        execute(environment.dataSource(), "UPDATE users SET email_verified = true WHERE email LIKE 'aluno-%@loadtest.local'");
+    }
+
+    private void warmUpTokens() throws Exception {
+        for (int i = 0; i < users; i++) {
+            login(i);
+        }
+    }
+
+    private boolean mixed(int worker) throws Exception {
+        int user = randomUser(worker);
+        int dice = ThreadLocalRandom.current().nextInt(100);
+        if (dice < 70) {
+            return me(user);
+        }
+        return dice < 90 ? login(user) : refresh(user);
+    }
+
+    private boolean login(int user) throws Exception {
+        HttpResponse<String> response = post("/auth/login",
+                Map.of("email", EMAIL_PATTERN.formatted(user), "password", PASSWORD));
+        return storeTokens(user, response);
+    }
+
+    private boolean refresh(int user) throws Exception {
+        String refreshToken = refreshTokens.get(user);
+        if (refreshToken == null) {
+            return login(user);
+        }
+        HttpResponse<String> response = post("/auth/refresh-token", Map.of("refreshToken", refreshToken));
+        return storeTokens(user, response);
+    }
+
+    private boolean me(int user) throws Exception {
+        String accessToken = accessTokens.get(user);
+        if (accessToken == null) {
+            return login(user);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(environment.baseUrl() + "/auth/me"))
+                .header("Authorization", "Bearer " + accessToken)
+                .GET()
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    private boolean storeTokens(int user, HttpResponse<String> response) throws Exception {
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        JsonNode body = objectMapper.readTree(response.body());
+        accessTokens.set(user, body.path("token").asText(null));
+        if (body.hasNonNull("refreshToken")) {
+            refreshTokens.set(user, body.get("refreshToken").asText());
+        }
+        return true;
+    }
+
+    private HttpResponse<String> post(String path, Map<String, String> body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(environment.baseUrl() + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Cada usuário virtual usa só os alunos da sua fatia: dois refresh concorrentes
+     * com o mesmo token seriam tratados pelo serviço como reuso e revogariam a sessão.
+     */
+    private int randomUser(int worker) {
+        int slice = Math.max(1, users / concurrency);
+        int user = ThreadLocalRandom.current().nextInt(slice) * concurrency + worker;
+        return user < users ? user : worker;
+    }
+
+    private long countEnrolled() throws SQLException {
+        try (Connection connection = environment.dataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT count(*) FROM users WHERE email LIKE 'aluno-%@loadtest.local'");
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static void execute(DataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.executeUpdate();
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Argumento inválido, use chave=valor: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
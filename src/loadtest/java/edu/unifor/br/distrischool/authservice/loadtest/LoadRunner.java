@@ -0,0 +1,104 @@
+package edu.unifor.br.distrischool.authservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executa um cenário em ciclo fechado: {@code concurrency} usuários virtuais,
+ * cada um em uma virtual thread, repetem a requisição até o fim da duração.
+ * A latência de cada chamada vai para um histograma HdrHistogram.
+ */
+final class LoadRunner {
+
+    /**
+     * Uma requisição do cenário. Devolve {@code true} em caso de sucesso; uma
+     * exceção conta como erro.
+     */
+    @FunctionalInterface
+    interface Request {
+        boolean execute(int worker) throws Exception;
+    }
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private LoadRunner() {
+    }
+
+    static Result run(String name, int concurrency, Duration duration, Request request) throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3);
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                int worker = i;
+                futures.add(workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long requestStart = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = request.execute(worker);
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        latencies.recordValue(Math.min(System.nanoTime() - requestStart, MAX_TRACKABLE_NANOS));
+                        if (!ok) {
+                            errors.increment();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (java.util.concurrent.ExecutionException e) {
+                    throw new IllegalStateException("Falha no usuário virtual do cenário " + name, e.getCause());
+                }
+            }
+        }
+        return new Result(name, concurrency, Duration.ofNanos(System.nanoTime() - start), latencies, errors.sum());
+    }
+
+    record Result(String name, int concurrency, Duration elapsed, Histogram latencies, long errors) {
+
+        long requests() {
+            return latencies.getTotalCount();
+        }
+
+        double throughput() {
+            return requests() / (elapsed.toNanos() / 1_000_000_000.0);
+        }
+
+        double errorRate() {
+            return requests() == 0 ? 0 : (double) errors / requests();
+        }
+
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1_000_000.0;
+        }
+
+        static String header() {
+            return String.format("%-14s %6s %9s %8s %10s %9s %9s %9s %9s",
+                    "cenário", "vus", "reqs", "erros%", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-14s %6d %9d %8.2f %10.1f %9.2f %9.2f %9.2f %9.2f",
+                    name, concurrency, requests(), errorRate() * 100, throughput(),
+                    percentileMillis(50), percentileMillis(99), percentileMillis(99.9),
+                    latencies.getMaxValue() / 1_000_000.0);
+        }
+    }
+}
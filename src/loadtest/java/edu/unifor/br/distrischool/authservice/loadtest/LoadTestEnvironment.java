@@ -0,0 +1,156 @@
+package edu.unifor.br.distrischool.authservice.loadtest;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import edu.unifor.br.distrischool.authservice.AuthServiceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.logging.LoggingApplicationListener;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sobe o auth-service real, com Postgres embarcado, broker Kafka em processo
+ * (KRaft) e GreenMail como servidor SMTP. Nada depende de Docker ou de
+ * serviços externos.
+ */
+final class LoadTestEnvironment implements AutoCloseable {
+
+    static final String ADMIN_EMAIL = "admin@loadtest.local";
+    static final String ADMIN_PASSWORD = "admin-loadtest-123";
+
+    private static final String MAIL_USER = "no-reply@loadtest.local";
+    private static final String MAIL_PASSWORD = "loadtest";
+
+    private final EmbeddedPostgres postgres;
+    private final EmbeddedKafkaKraftBroker kafka;
+    private final GreenMail mail;
+    private final ConfigurableApplicationContext application;
+
+    private LoadTestEnvironment(
+            EmbeddedPostgres postgres,
+            EmbeddedKafkaKraftBroker kafka,
+            GreenMail mail,
+            ConfigurableApplicationContext application
+    ) {
+        this.postgres = postgres;
+        this.kafka = kafka;
+        this.mail = mail;
+        this.application = application;
+    }
+
+    static LoadTestEnvironment start(int userCreatePartitions) throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, userCreatePartitions, "user.create");
+        GreenMail mail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        mail.setUser(MAIL_USER, MAIL_PASSWORD);
+        try {
+            kafka.afterPropertiesSet();
+            mail.start();
+            ConfigurableApplicationContext application = startApplication(postgres, kafka, mail);
+
+            // O consumer começa do offset mais recente: eventos publicados antes da
+            // atribuição das partições seriam ignorados
+            application.getBean(KafkaListenerEndpointRegistry.class).getListenerContainers()
+                    .forEach(container -> ContainerTestUtils.waitForAssignment(container, userCreatePartitions));
+
+            return new LoadTestEnvironment(postgres, kafka, mail, application);
+        } catch (RuntimeException e) {
+            mail.stop();
+            kafka.destroy();
+            postgres.close();
+            throw e;
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(
+            EmbeddedPostgres postgres,
+            EmbeddedKafkaKraftBroker kafka,
+            GreenMail mail
+    ) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("spring.kafka.bootstrap-servers", kafka.getBrokersAsString());
+        properties.put("spring.mail.enabled", true);
+        properties.put("spring.mail.host", "localhost");
+        properties.put("spring.mail.port", mail.getSmtp().getPort());
+        properties.put("spring.mail.username", MAIL_USER);
+        properties.put("spring.mail.password", MAIL_PASSWORD);
+        properties.put("spring.mail.properties.mail.smtp.auth", true);
+        properties.put("logging.level.org.springframework.security", "WARN");
+        // Todos os usuários virtuais saem do mesmo IP
+        properties.put("app.security.rate-limit.login.ip.limit", Integer.MAX_VALUE);
+        properties.put("jwt.secret", "load-test-secret-with-at-least-64-bytes-for-hs512-signatures-0123456789");
+        properties.put("jwt.expiration", 3_600_000);
+        properties.put("jwt.refresh-expiration", 86_400_000);
+        properties.put("app.admin.name", "Admin Load Test");
+        properties.put("app.admin.email", ADMIN_EMAIL);
+        properties.put("app.admin.password", ADMIN_PASSWORD);
+
+        return new SpringApplicationBuilder(AuthServiceApplication.class)
+                .listeners(new LoadTestProperties(properties))
+                .run();
+    }
+
+    /**
+     * Registra as propriedades do teste acima do application.yml e das variáveis
+     * de ambiente, mas abaixo das propriedades -D, que continuam podendo
+     * sobrescrever qualquer valor (ex.: -Dapp.kafka.user-create.batch.enabled=true).
+     * Roda antes do {@code LoggingApplicationListener} para que os níveis de log
+     * também sejam aplicados.
+     */
+    private record LoadTestProperties(Map<String, Object> properties)
+            implements ApplicationListener<ApplicationEnvironmentPreparedEvent>, Ordered {
+
+        @Override
+        public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+            event.getEnvironment().getPropertySources().addAfter(
+                    StandardEnvironment.SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME,
+                    new MapPropertySource("loadTest", properties));
+        }
+
+        @Override
+        public int getOrder() {
+            return LoggingApplicationListener.DEFAULT_ORDER - 1;
+        }
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+    }
+
+    String kafkaBootstrapServers() {
+        return kafka.getBrokersAsString();
+    }
+
+    DataSource dataSource() {
+        return postgres.getPostgresDatabase();
+    }
+
+    int receivedMails() {
+        return mail.getReceivedMessages().length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        application.close();
+        mail.stop();
+        kafka.destroy();
+        postgres.close();
+    }
+}
@@ -0,0 +1,46 @@
+package edu.unifor.br.distrischool.authservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${app.mail.executor.concurrency:8}")
+    private int mailConcurrency;
+
+    @Value("${app.mail.executor.queue-capacity:1000}")
+    private int mailQueueCapacity;
+
+    /**
+     * Executor do envio de emails. Em modo virtual threads cada envio ganha a sua
+     * própria virtual thread, limitado a {@code app.mail.executor.concurrency}
+     * conexões SMTP simultâneas; caso contrário usa um pool fixo de threads de plataforma.
+     */
+    @Bean
+    public AsyncTaskExecutor mailTaskExecutor() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mail-vt-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(mailConcurrency);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("mail-");
+        executor.setCorePoolSize(mailConcurrency);
+        executor.setMaxPoolSize(mailConcurrency);
+        executor.setQueueCapacity(mailQueueCapacity);
+        executor.initialize();
+        return executor;
+    }
+}
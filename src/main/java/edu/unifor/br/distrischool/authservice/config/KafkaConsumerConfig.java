@@ -1,18 +1,32 @@
 package edu.unifor.br.distrischool.authservice.config;
 
 import edu.unifor.br.distrischool.authservice.dto.UserEvent;
+import edu.unifor.br.distrischool.authservice.listener.KafkaProcessingMetricsInterceptor;
+import edu.unifor.br.distrischool.authservice.serialization.UserEventDeserializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.util.backoff.ExponentialBackOff;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 
 @Configuration
 public class KafkaConsumerConfig {
@@ -20,27 +34,113 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${app.kafka.user-create.batch.max-poll-records:500}")
+    private int batchMaxPollRecords;
+
+    @Value("${app.kafka.consumer.concurrency:3}")
+    private int concurrency;
+
+    @Value("${app.kafka.consumer.max-poll-records:100}")
+    private int maxPollRecords;
+
+    @Value("${app.kafka.consumer.retry.initial-interval:1s}")
+    private Duration retryInitialInterval;
+
+    @Value("${app.kafka.consumer.retry.max-interval:30s}")
+    private Duration retryMaxInterval;
+
+    @Value("${app.kafka.consumer.retry.max-elapsed-time:2m}")
+    private Duration retryMaxElapsedTime;
+
     @Bean
-    public ConsumerFactory<String, UserEvent> consumerFactory() {
-        JsonDeserializer<UserEvent> deserializer = new JsonDeserializer<>(UserEvent.class);
-        deserializer.addTrustedPackages("*");
-        deserializer.setRemoveTypeHeaders(false);
-        deserializer.setUseTypeMapperForKey(false);
+    public ConsumerFactory<String, UserEvent> consumerFactory(MeterRegistry meterRegistry) {
+        // JSON ou Avro, detectado pelo primeiro byte; JSON só desserializa UserEvent
+        // e ignora cabeçalhos de tipo enviados pelo produtor
+        UserEventDeserializer deserializer = new UserEventDeserializer();
 
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, UserEventDeserializer.class);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "auth-service-group");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
 
-        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), deserializer);
+        // Payload ilegível vira falha tratada pelo error handler (vai direto para a DLT)
+        // em vez de exceção no poll, que travaria a partição
+        DefaultKafkaConsumerFactory<String, UserEvent> factory = new DefaultKafkaConsumerFactory<>(
+                props, new StringDeserializer(), new ErrorHandlingDeserializer<>(deserializer));
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
+    /**
+     * Tenta de novo com backoff exponencial e, esgotadas as tentativas, publica o
+     * registro em {@code <tópico>.DLT} e segue para o próximo, para que uma mensagem
+     * envenenada não bloqueie a partição.
+     */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, UserEvent> kafkaListenerContainerFactory() {
+    public DefaultErrorHandler kafkaErrorHandler(@Qualifier("deadLetterKafkaTemplate") KafkaOperations<Object, Object> deadLetterKafkaTemplate) {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(
+                deadLetterKafkaTemplate,
+                (record, ex) -> new TopicPartition(record.topic() + ".DLT", -1)
+        );
+
+        ExponentialBackOff backOff = new ExponentialBackOff(retryInitialInterval.toMillis(), 2.0);
+        backOff.setMaxInterval(retryMaxInterval.toMillis());
+        backOff.setMaxElapsedTime(retryMaxElapsedTime.toMillis());
+
+        return new DefaultErrorHandler(recoverer, backOff);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserEvent> kafkaListenerContainerFactory(
+            ConsumerFactory<String, UserEvent> consumerFactory,
+            DefaultErrorHandler kafkaErrorHandler,
+            KafkaProcessingMetricsInterceptor metricsInterceptor
+    ) {
         ConcurrentKafkaListenerContainerFactory<String, UserEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setCommonErrorHandler(kafkaErrorHandler);
+        factory.setRecordInterceptor(metricsInterceptor);
+        configureListenerExecutor(factory);
         return factory;
     }
-}
 
+    /**
+     * Entrega ao listener a lista inteira de registros de cada poll; o offset é
+     * confirmado uma vez por lote, depois que o listener retorna.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserEvent> kafkaBatchListenerContainerFactory(
+            ConsumerFactory<String, UserEvent> consumerFactory,
+            DefaultErrorHandler kafkaErrorHandler,
+            KafkaProcessingMetricsInterceptor metricsInterceptor
+    ) {
+        ConcurrentKafkaListenerContainerFactory<String, UserEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(kafkaErrorHandler);
+        factory.setBatchInterceptor(metricsInterceptor);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxPollRecords);
+        factory.getContainerProperties().setKafkaConsumerProperties(overrides);
+
+        configureListenerExecutor(factory);
+        return factory;
+    }
+
+    private void configureListenerExecutor(ConcurrentKafkaListenerContainerFactory<String, UserEvent> factory) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor listenerExecutor = new SimpleAsyncTaskExecutor("kafka-listener-vt-");
+            listenerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(listenerExecutor);
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package edu.unifor.br.distrischool.authservice.config;
 
 import edu.unifor.br.distrischool.authservice.dto.UserEvent;
+import edu.unifor.br.distrischool.authservice.serialization.UserEventAvroSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Configuration
@@ -20,18 +28,99 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${app.kafka.producer.linger-ms:10}")
+    private int lingerMs;
+
+    @Value("${app.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${app.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value("${app.kafka.producer.idempotence:true}")
+    private boolean idempotence;
+
+    /**
+     * Quanto {@code send()} pode bloquear esperando metadados ou espaço no buffer.
+     * Fica abaixo de {@code app.outbox.send-timeout} para que um broker inacessível
+     * não prenda a thread do relay além do prazo do lote.
+     */
+    @Value("${app.kafka.producer.max-block:5s}")
+    private Duration maxBlock;
+
+    @Value("${app.kafka.serialization.format:json}")
+    private String serializationFormat;
+
     @Bean
-    public ProducerFactory<String, UserEvent> producerFactory() {
+    public ProducerFactory<String, UserEvent> producerFactory(MeterRegistry meterRegistry) {
+        Serializer<UserEvent> serializer = userEventSerializer();
+
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, serializer.getClass());
+        // Reenvios internos do producer não duplicam mensagens nem alteram a ordem
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        // Agrupa os eventos de login em lotes maiores e comprimidos por partição
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlock.toMillis());
+
+        // Uma única instância do serializer para todos os registros
+        DefaultKafkaProducerFactory<String, UserEvent> factory =
+                new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), serializer);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
+    }
+
+    @Bean
+    public KafkaTemplate<String, UserEvent> kafkaTemplate(ProducerFactory<String, UserEvent> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 
+    /**
+     * {@code json} (padrão) ou {@code avro}. Os consumers aceitam os dois formatos,
+     * então a troca pode ser feita produtor a produtor.
+     */
+    private Serializer<UserEvent> userEventSerializer() {
+        return switch (serializationFormat.toLowerCase()) {
+            case "avro" -> new UserEventAvroSerializer();
+            case "json" -> {
+                JsonSerializer<UserEvent> serializer = new JsonSerializer<>();
+                serializer.setAddTypeInfo(false);
+                yield serializer;
+            }
+            default -> throw new IllegalStateException(
+                    "Formato de serialização Kafka inválido: " + serializationFormat);
+        };
+    }
+
+    /**
+     * Template usado pelo {@code DeadLetterPublishingRecoverer}: republica tanto
+     * eventos desserializados quanto os bytes originais de mensagens que não
+     * puderam ser desserializadas.
+     */
     @Bean
-    public KafkaTemplate<String, UserEvent> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<Object, Object> deadLetterKafkaTemplate() {
+        Map<Class<?>, Serializer<?>> valueSerializers = new LinkedHashMap<>();
+        valueSerializers.put(byte[].class, new ByteArraySerializer());
+        valueSerializers.put(UserEvent.class, userEventSerializer());
+
+        Map<Class<?>, Serializer<?>> keySerializers = new LinkedHashMap<>();
+        keySerializers.put(byte[].class, new ByteArraySerializer());
+        keySerializers.put(String.class, new StringSerializer());
+
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                configProps,
+                new DelegatingByTypeSerializer(keySerializers),
+                new DelegatingByTypeSerializer(valueSerializers)
+        ));
     }
 }
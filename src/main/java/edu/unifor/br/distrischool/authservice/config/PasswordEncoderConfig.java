@@ -0,0 +1,108 @@
+package edu.unifor.br.distrischool.authservice.config;
+
+import edu.unifor.br.distrischool.authservice.security.BoundedPasswordEncoder;
+import edu.unifor.br.distrischool.authservice.security.PasswordEncoderCalibrator;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@Slf4j
+public class PasswordEncoderConfig {
+
+    private static final String BCRYPT = "bcrypt";
+    private static final String ARGON2 = "argon2";
+
+    @Value("${app.security.password.algorithm:bcrypt}")
+    private String algorithm;
+
+    @Value("${app.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.security.password.argon2.memory-kib:19456}")
+    private int argon2MemoryKib;
+
+    @Value("${app.security.password.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${app.security.password.argon2.parallelism:1}")
+    private int argon2Parallelism;
+
+    @Value("${app.security.password.calibration.enabled:false}")
+    private boolean calibrationEnabled;
+
+    @Value("${app.security.password.calibration.target-latency:250ms}")
+    private Duration calibrationTarget;
+
+    @Value("${app.security.password-hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${app.security.password-hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${app.security.password-hashing.timeout:5s}")
+    private Duration hashingTimeout;
+
+    @Value("${app.security.password-hashing.retry-after:2s}")
+    private Duration hashingRetryAfter;
+
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                delegatingPasswordEncoder(),
+                threads,
+                hashingQueueCapacity,
+                hashingTimeout,
+                hashingRetryAfter,
+                meterRegistry
+        );
+    }
+
+    /**
+     * Hashes novos recebem o prefixo do algoritmo configurado ({@code {bcrypt}...},
+     * {@code {argon2}...}). Hashes antigos, sem prefixo, continuam sendo verificados
+     * como BCrypt e são regravados no formato atual no próximo login bem-sucedido.
+     */
+    private PasswordEncoder delegatingPasswordEncoder() {
+        int strength = bcryptStrength;
+        int iterations = argon2Iterations;
+
+        if (calibrationEnabled && BCRYPT.equals(algorithm)) {
+            strength = PasswordEncoderCalibrator.calibrate(
+                    BCRYPT, BCryptPasswordEncoder::new, bcryptStrength, 16, calibrationTarget);
+        } else if (calibrationEnabled && ARGON2.equals(algorithm)) {
+            iterations = PasswordEncoderCalibrator.calibrate(
+                    ARGON2, this::argon2, argon2Iterations, 10, calibrationTarget);
+        }
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(strength));
+        encoders.put(ARGON2, argon2(iterations));
+
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Algoritmo de senha não suportado: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+
+        log.info("PasswordEncoder configurado: algoritmo={} bcryptStrength={} argon2Iterations={}",
+                algorithm, strength, iterations);
+        return delegating;
+    }
+
+    private PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(16, 32, argon2Parallelism, argon2MemoryKib, iterations);
+    }
+}
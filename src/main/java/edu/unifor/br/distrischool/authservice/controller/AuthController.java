@@ -2,7 +2,9 @@ package edu.unifor.br.distrischool.authservice.controller;
 
 import edu.unifor.br.distrischool.authservice.dto.*;
 import edu.unifor.br.distrischool.authservice.dto.UserProfileResponse;
+import edu.unifor.br.distrischool.authservice.security.AuthRateLimiter;
 import edu.unifor.br.distrischool.authservice.service.AuthService;
+import edu.unifor.br.distrischool.authservice.service.TokenIntrospectionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,9 +20,13 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
     @Autowired
     private final AuthService authService;
+    private final TokenIntrospectionService tokenIntrospectionService;
+    private final AuthRateLimiter rateLimiter;
 
     @PostMapping("/login")
     public ResponseEntity<UserAuthResponse> login(@Valid @RequestBody LoginRequest request) {
+        // Fora da transação do serviço: rajadas rejeitadas não ocupam conexão do pool
+        rateLimiter.checkLogin(request.getEmail());
         UserAuthResponse response = authService.login(request);
         return ResponseEntity.ok(response);
     }
@@ -41,6 +47,7 @@ public class AuthController {
     public ResponseEntity<MessageResponse> requestPasswordReset(
             @Valid @RequestBody PasswordResetRequest request
     ) {
+        rateLimiter.checkPasswordReset(request.getEmail());
         MessageResponse response = authService.requestPasswordReset(request);
         return ResponseEntity.ok(response);
     }
@@ -61,6 +68,35 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<MessageResponse> logout(
+            @Valid @RequestBody RefreshTokenRequest request,
+            @RequestHeader(value = "Authorization", required = false) String authorization
+    ) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        MessageResponse response = authService.logout(request, accessToken);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/introspect")
+    public ResponseEntity<TokenIntrospectionResponse> introspect(
+            @Valid @RequestBody IntrospectionRequest request
+    ) {
+        return ResponseEntity.ok(tokenIntrospectionService.introspect(request.getToken()));
+    }
+
+    @PostMapping("/introspect/batch")
+    public ResponseEntity<BatchIntrospectionResponse> introspectBatch(
+            @Valid @RequestBody BatchIntrospectionRequest request
+    ) {
+        BatchIntrospectionResponse response = BatchIntrospectionResponse.builder()
+                .results(tokenIntrospectionService.introspect(request.getTokens()))
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/health")
     public ResponseEntity<StatusResponse> health() {
         StatusResponse response = StatusResponse.builder()
@@ -0,0 +1,40 @@
+package edu.unifor.br.distrischool.authservice.controller;
+
+import edu.unifor.br.distrischool.authservice.service.JwkSetDocument;
+import edu.unifor.br.distrischool.authservice.service.JwtService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Chaves públicas para que os outros serviços verifiquem tokens localmente.
+ * Clientes revalidam com {@code If-None-Match} e recebem 304 enquanto as chaves
+ * não mudarem.
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private static final MediaType JWK_SET = MediaType.parseMediaType("application/jwk-set+json");
+
+    private final JwtService jwtService;
+
+    @Value("${jwt.jwks.max-age:5m}")
+    private Duration maxAge;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<String> jwks() {
+        JwkSetDocument jwkSet = jwtService.getJwkSet();
+        return ResponseEntity.ok()
+                .contentType(JWK_SET)
+                .eTag(jwkSet.etag())
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .body(jwkSet.json());
+    }
+}
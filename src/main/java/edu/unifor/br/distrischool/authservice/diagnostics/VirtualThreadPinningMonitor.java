@@ -0,0 +1,113 @@
+package edu.unifor.br.distrischool.authservice.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Escuta o evento JFR {@code jdk.VirtualThreadPinned} e reporta onde uma virtual
+ * thread ficou presa à carrier thread (código nativo, {@code synchronized} em
+ * bibliotecas antigas etc.). Cada ocorrência incrementa
+ * {@code auth.virtual-threads.pinned}, tagueado pela primeira classe fora do JDK na
+ * pilha (sem método nem linha, para manter a cardinalidade limitada), e é logada
+ * com a pilha resumida.
+ */
+@Component
+@ConditionalOnProperty(name = {"spring.threads.virtual.enabled", "app.virtual-threads.pinning-monitor.enabled"})
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final int LOGGED_FRAMES = 8;
+    private static final String UNKNOWN_CLASS = "unknown";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.virtual-threads.pinning-monitor.threshold:20ms}")
+    private Duration threshold;
+
+    private final Map<String, Counter> pinnedCounters = new ConcurrentHashMap<>();
+
+    private volatile RecordingStream stream;
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable("jdk.VirtualThreadPinned")
+                .withThreshold(threshold)
+                .withStackTrace();
+        recording.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        recording.startAsync();
+        this.stream = recording;
+        log.info("Monitor de pinning de virtual threads ativo (limite={}ms)", threshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        pinnedCounters.computeIfAbsent(firstApplicationClass(frames), className -> Counter.builder("auth.virtual-threads.pinned")
+                        .tag("class", className)
+                        .register(meterRegistry))
+                .increment();
+
+        log.warn("Virtual thread presa à carrier por {}ms em {}:\n\t{}",
+                event.getDuration().toMillis(),
+                event.getThread() != null ? event.getThread().getJavaName() : "?",
+                frames.stream()
+                        .limit(LOGGED_FRAMES)
+                        .map(VirtualThreadPinningMonitor::describe)
+                        .collect(Collectors.joining("\n\t")));
+    }
+
+    /**
+     * O frame de topo costuma ser park/monitor do próprio JDK; o que interessa é
+     * quem chamou.
+     */
+    private static String firstApplicationClass(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (!frame.isJavaFrame() || frame.getMethod() == null) {
+                continue;
+            }
+            String className = frame.getMethod().getType().getName();
+            if (!className.startsWith("java.") && !className.startsWith("jdk.")
+                    && !className.startsWith("sun.")) {
+                return className;
+            }
+        }
+        return UNKNOWN_CLASS;
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = this.stream;
+        if (recording != null) {
+            recording.close();
+            this.stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+}
@@ -0,0 +1,24 @@
+package edu.unifor.br.distrischool.authservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIntrospectionRequest {
+
+    public static final int MAX_TOKENS = 100;
+
+    @NotEmpty(message = "Informe ao menos um token")
+    @Size(max = MAX_TOKENS, message = "Máximo de " + MAX_TOKENS + " tokens por requisição")
+    private List<@NotBlank(message = "Token é obrigatório") String> tokens;
+}
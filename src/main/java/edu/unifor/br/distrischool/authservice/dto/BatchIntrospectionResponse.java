@@ -0,0 +1,19 @@
+package edu.unifor.br.distrischool.authservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultados na mesma ordem dos tokens da requisição.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIntrospectionResponse {
+    private List<TokenIntrospectionResponse> results;
+}
@@ -0,0 +1,32 @@
+package edu.unifor.br.distrischool.authservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado da introspecção de um token, com os nomes de campo da RFC 7662.
+ * Tokens inválidos, expirados ou revogados resultam só em {@code "active": false}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospectionResponse {
+
+    private boolean active;
+    private String sub;
+    private List<String> roles;
+    private Long exp;
+    private Long iat;
+    private String jti;
+
+    public static TokenIntrospectionResponse inactive() {
+        return TokenIntrospectionResponse.builder().active(false).build();
+    }
+}
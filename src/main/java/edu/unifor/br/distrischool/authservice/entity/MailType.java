@@ -0,0 +1,12 @@
+package edu.unifor.br.distrischool.authservice.entity;
+
+/**
+ * Tipo de um email transacional. A dead letter guarda só o tipo, e o
+ * {@code MailDeadLetterReplayer} gera o conteúdo de novo a partir dele.
+ */
+public enum MailType {
+    EMAIL_VERIFICATION,
+    PASSWORD_RESET,
+    /** Conta criada via {@code user.create}, com senha temporária. */
+    ACCOUNT_CREATED
+}
@@ -0,0 +1,10 @@
+package edu.unifor.br.distrischool.authservice.entity;
+
+/**
+ * Finalidade de um token de uso único enviado por email; cada usuário tem no
+ * máximo um token ativo por finalidade.
+ */
+public enum TokenPurpose {
+    EMAIL_VERIFICATION,
+    PASSWORD_RESET
+}
@@ -0,0 +1,7 @@
+package edu.unifor.br.distrischool.authservice.event;
+
+/**
+ * Publicado sempre que os dados de autenticação de um usuário são criados ou alterados.
+ */
+public record UserChangedEvent(String email) {
+}
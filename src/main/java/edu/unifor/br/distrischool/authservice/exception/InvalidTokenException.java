@@ -0,0 +1,11 @@
+package edu.unifor.br.distrischool.authservice.exception;
+
+/**
+ * Token ausente, expirado, revogado ou de tipo errado; vira um 401.
+ */
+public class InvalidTokenException extends RuntimeException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
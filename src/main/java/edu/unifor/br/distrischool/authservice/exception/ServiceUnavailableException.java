@@ -0,0 +1,20 @@
+package edu.unifor.br.distrischool.authservice.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Sinaliza que o serviço está temporariamente sem capacidade para atender a
+ * requisição; vira um 503 com o header {@code Retry-After}.
+ */
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
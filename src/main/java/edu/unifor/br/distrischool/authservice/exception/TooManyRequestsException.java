@@ -0,0 +1,20 @@
+package edu.unifor.br.distrischool.authservice.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Sinaliza que o cliente excedeu o limite de tentativas; vira um 429 com o
+ * header {@code Retry-After}.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,120 @@
+package edu.unifor.br.distrischool.authservice.listener;
+
+import edu.unifor.br.distrischool.authservice.dto.UserEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo de processamento dos listeners por tópico e partição, em
+ * {@code auth.kafka.consumer.process}. O lag por partição vem das métricas do
+ * próprio client Kafka ({@code kafka.consumer.fetch.manager.records.lag}).
+ */
+@Component
+@RequiredArgsConstructor
+public class KafkaProcessingMetricsInterceptor
+        implements RecordInterceptor<String, UserEvent>, BatchInterceptor<String, UserEvent> {
+
+    private final MeterRegistry meterRegistry;
+
+    // Cada thread do container processa um registro (ou lote) por vez
+    private final ThreadLocal<Long> startNanos = new ThreadLocal<>();
+
+    private final Map<PartitionOutcome, Meters> meters = new ConcurrentHashMap<>();
+
+    @Override
+    public ConsumerRecord<String, UserEvent> intercept(ConsumerRecord<String, UserEvent> record,
+                                                       Consumer<String, UserEvent> consumer) {
+        startNanos.set(System.nanoTime());
+        return record;
+    }
+
+    @Override
+    public void success(ConsumerRecord<String, UserEvent> record, Consumer<String, UserEvent> consumer) {
+        record(record.topic(), record.partition(), "success", 1, elapsedNanos());
+    }
+
+    @Override
+    public void failure(ConsumerRecord<String, UserEvent> record, Exception exception,
+                        Consumer<String, UserEvent> consumer) {
+        record(record.topic(), record.partition(), "failure", 1, elapsedNanos());
+    }
+
+    @Override
+    public ConsumerRecords<String, UserEvent> intercept(ConsumerRecords<String, UserEvent> records,
+                                                        Consumer<String, UserEvent> consumer) {
+        startNanos.set(System.nanoTime());
+        return records;
+    }
+
+    @Override
+    public void success(ConsumerRecords<String, UserEvent> records, Consumer<String, UserEvent> consumer) {
+        recordBatch(records, "success");
+    }
+
+    @Override
+    public void failure(ConsumerRecords<String, UserEvent> records, Exception exception,
+                        Consumer<String, UserEvent> consumer) {
+        recordBatch(records, "failure");
+    }
+
+    private void recordBatch(ConsumerRecords<String, UserEvent> records, String outcome) {
+        long elapsed = elapsedNanos();
+        for (TopicPartition partition : records.partitions()) {
+            record(partition.topic(), partition.partition(), outcome, records.records(partition).size(), elapsed);
+        }
+    }
+
+    private long elapsedNanos() {
+        Long start = startNanos.get();
+        startNanos.remove();
+        return start == null ? -1 : System.nanoTime() - start;
+    }
+
+    private void record(String topic, int partition, String outcome, int count, long elapsedNanos) {
+        if (elapsedNanos < 0) {
+            return;
+        }
+
+        Meters partitionMeters = meters.computeIfAbsent(new PartitionOutcome(topic, partition, outcome), this::register);
+        partitionMeters.process().record(elapsedNanos, TimeUnit.NANOSECONDS);
+        partitionMeters.records().increment(count);
+    }
+
+    /**
+     * Timer e contador de cada (tópico, partição, resultado), criados na primeira
+     * ocorrência; evita a busca no registry a cada registro e a cada lote.
+     */
+    private Meters register(PartitionOutcome key) {
+        String partition = String.valueOf(key.partition());
+        return new Meters(
+                Timer.builder("auth.kafka.consumer.process")
+                        .tag("topic", key.topic())
+                        .tag("partition", partition)
+                        .tag("outcome", key.outcome())
+                        .register(meterRegistry),
+                Counter.builder("auth.kafka.consumer.records")
+                        .tag("topic", key.topic())
+                        .tag("partition", partition)
+                        .tag("outcome", key.outcome())
+                        .register(meterRegistry));
+    }
+
+    private record PartitionOutcome(String topic, int partition, String outcome) {
+    }
+
+    private record Meters(Timer process, Counter records) {
+    }
+}
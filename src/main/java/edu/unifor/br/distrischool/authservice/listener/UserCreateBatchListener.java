@@ -0,0 +1,186 @@
+package edu.unifor.br.distrischool.authservice.listener;
+
+import edu.unifor.br.distrischool.authservice.dto.UserEvent;
+import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.event.UserChangedEvent;
+import edu.unifor.br.distrischool.authservice.repository.UserRepository;
+import edu.unifor.br.distrischool.authservice.security.BoundedPasswordEncoder;
+import edu.unifor.br.distrischool.authservice.service.EmailService;
+import edu.unifor.br.distrischool.authservice.service.KafkaEventService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Versão em lote do {@link UserCreateListener}, para importações de matrícula em massa.
+ * Cada poll vira uma transação: uma única consulta de existência para o lote inteiro,
+ * hashing das senhas em paralelo no pool de hashing e INSERTs em batch. O offset é
+ * confirmado por lote, após o commit.
+ *
+ * <p>Se o lote falhar (ex.: violação do índice único por uma criação concorrente),
+ * os registros são gravados de novo um a um, cada um na sua transação. O primeiro
+ * que falhar sai como {@link BatchListenerFailedException} com o seu índice: o
+ * {@code DefaultErrorHandler} confirma os anteriores, já gravados, e manda só esse
+ * registro para a DLT depois das tentativas; os seguintes voltam no próximo poll.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.user-create.batch.enabled", havingValue = "true")
+@Slf4j
+public class UserCreateBatchListener {
+
+    private final UserRepository userRepository;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final EmailService emailService;
+    private final KafkaEventService kafkaEventService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserCreateBatchListener(
+            UserRepository userRepository,
+            BoundedPasswordEncoder passwordEncoder,
+            EmailService emailService,
+            KafkaEventService kafkaEventService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.emailService = emailService;
+        this.kafkaEventService = kafkaEventService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @KafkaListener(topics = "user.create", groupId = "auth-service-group", containerFactory = "kafkaBatchListenerContainerFactory")
+    public void handleUserCreateBatch(List<UserEvent> events) {
+        log.info("Received batch of {} user.create events", events.size());
+
+        // Valor nulo: o ErrorHandlingDeserializer não conseguiu ler o registro.
+        // O que vem antes é gravado normalmente; ele vai para a DLT.
+        int unreadable = -1;
+        for (int i = 0; i < events.size() && unreadable < 0; i++) {
+            if (events.get(i) == null) {
+                unreadable = i;
+            }
+        }
+        List<UserEvent> readable = unreadable < 0 ? events : events.subList(0, unreadable);
+
+        Map<String, Integer> indexByEmail = new LinkedHashMap<>();
+        for (int i = 0; i < readable.size(); i++) {
+            UserEvent event = readable.get(i);
+            if (event.getEmail() == null || event.getEmail().isBlank()) {
+                log.warn("user.create event missing email, skipping: {}", event);
+                continue;
+            }
+            // Mesma chave que o índice único em lower(email)
+            indexByEmail.putIfAbsent(event.getEmail().toLowerCase(Locale.ROOT), i);
+        }
+
+        if (!indexByEmail.isEmpty()) {
+            Set<String> existing = userRepository.findExistingEmails(indexByEmail.keySet());
+            if (!existing.isEmpty()) {
+                log.warn("{} user(s) already exist, skipping creation: {}", existing.size(), existing);
+                indexByEmail.keySet().removeAll(existing);
+            }
+        }
+
+        if (!indexByEmail.isEmpty()) {
+            createAll(prepare(readable, indexByEmail.values()));
+        }
+
+        if (unreadable >= 0) {
+            throw new BatchListenerFailedException("user.create ilegível no índice " + unreadable, unreadable);
+        }
+    }
+
+    private List<NewUser> prepare(List<UserEvent> events, Collection<Integer> indexes) {
+        List<UserEvent> toCreate = indexes.stream().map(events::get).toList();
+        List<String> rawPasswords = toCreate.stream()
+                .map(event -> event.getPassword() == null || event.getPassword().isBlank()
+                        ? generateTemporaryPassword()
+                        : event.getPassword())
+                .toList();
+        List<String> hashes = passwordEncoder.encodeAll(rawPasswords);
+
+        List<NewUser> users = new ArrayList<>(toCreate.size());
+        int position = 0;
+        for (int index : indexes) {
+            users.add(new NewUser(index, toCreate.get(position), hashes.get(position), rawPasswords.get(position)));
+            position++;
+        }
+        return users;
+    }
+
+    private void createAll(List<NewUser> users) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> create(users));
+            log.info("Created {} user(s) from batch", users.size());
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Batch insert of {} user(s) failed, retrying one by one: {}", users.size(), e.getMessage());
+        }
+
+        for (NewUser user : users) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (userRepository.existsByEmail(user.event().getEmail())) {
+                        log.warn("User already exists with email={}, skipping creation", user.event().getEmail());
+                        return;
+                    }
+                    create(List.of(user));
+                });
+            } catch (RuntimeException e) {
+                throw new BatchListenerFailedException(
+                        "Falha ao criar usuário " + user.event().getEmail(), e, user.index());
+            }
+        }
+    }
+
+    private void create(List<NewUser> users) {
+        // Entidades novas a cada tentativa: as de uma transação desfeita podem ter ficado com id
+        List<User> entities = users.stream().map(NewUser::toEntity).toList();
+        userRepository.saveAll(entities);
+        userRepository.flush();
+
+        for (int i = 0; i < entities.size(); i++) {
+            User user = entities.get(i);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
+            emailService.sendTemporaryPasswordEmail(user.getEmail(), users.get(i).rawPassword());
+            kafkaEventService.publishUserEvent("user.registered", user);
+        }
+    }
+
+    private String generateTemporaryPassword() {
+        return UUID.randomUUID().toString().replaceAll("[^A-Za-z0-9]", "").substring(0, 10);
+    }
+
+    /** {@code index}: posição do registro no lote recebido do poll. */
+    private record NewUser(int index, UserEvent event, String passwordHash, String rawPassword) {
+
+        User toEntity() {
+            return User.builder()
+                    .name(event.getName())
+                    .email(event.getEmail())
+                    .password(passwordHash)
+                    .role(Objects.requireNonNullElse(event.getRole(), User.Role.STUDENT))
+                    .emailVerified(false)
+                    .enabled(true)
+                    .build();
+        }
+    }
+}
@@ -2,16 +2,21 @@ package edu.unifor.br.distrischool.authservice.listener;
 
 import edu.unifor.br.distrischool.authservice.dto.UserEvent;
 import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.event.UserChangedEvent;
 import edu.unifor.br.distrischool.authservice.repository.UserRepository;
 import edu.unifor.br.distrischool.authservice.service.EmailService;
 import edu.unifor.br.distrischool.authservice.service.KafkaEventService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 @Component
+@ConditionalOnProperty(name = "app.kafka.user-create.batch.enabled", havingValue = "false", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class UserCreateListener {
@@ -20,8 +25,10 @@ public class UserCreateListener {
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
     private final KafkaEventService kafkaEventService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @KafkaListener(topics = "user.create", groupId = "auth-service-group", containerFactory = "kafkaListenerContainerFactory")
+    @Transactional
     public void handleUserCreate(UserEvent event) {
         try {
             log.info("Received user.create event for email={}", event.getEmail());
@@ -62,6 +69,7 @@ public class UserCreateListener {
                     .build();
 
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
 
             // send temporary password email
             emailService.sendTemporaryPasswordEmail(user.getEmail(), rawPassword);
@@ -0,0 +1,36 @@
+package edu.unifor.br.distrischool.authservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grava {@code users.last_login} sem passar pela entidade: a atualização toca só
+ * essa coluna, não dispara o {@code @PreUpdate} e não altera {@code updated_at}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LastLoginRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Um UPDATE em lote por chamada. Nunca retrocede o valor gravado, para que um
+     * lote atrasado de outra instância não sobrescreva um login mais recente.
+     */
+    public void updateLastLogins(List<Map.Entry<Long, LocalDateTime>> logins) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE users SET last_login = ? WHERE id = ? AND (last_login IS NULL OR last_login < ?)",
+                logins, logins.size(), (statement, login) -> {
+                    Timestamp lastLogin = Timestamp.valueOf(login.getValue());
+                    statement.setTimestamp(1, lastLogin);
+                    statement.setLong(2, login.getKey());
+                    statement.setTimestamp(3, lastLogin);
+                });
+    }
+}
@@ -0,0 +1,26 @@
+package edu.unifor.br.distrischool.authservice.repository;
+
+import edu.unifor.br.distrischool.authservice.entity.MailDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MailDeadLetterRepository extends JpaRepository<MailDeadLetter, Long> {
+
+    /**
+     * Próximas dead letters a reenviar, travadas até o fim da transação; outras
+     * instâncias pulam as linhas travadas em vez de reenviar em dobro.
+     */
+    @Query(value = """
+            SELECT * FROM mail_dead_letters
+            WHERE replays < :maxReplays
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<MailDeadLetter> lockReplayable(@Param("maxReplays") int maxReplays, @Param("limit") int limit);
+}
@@ -0,0 +1,52 @@
+package edu.unifor.br.distrischool.authservice.repository;
+
+import edu.unifor.br.distrischool.authservice.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Bloqueia o próximo lote livre em ordem de inserção. {@code SKIP LOCKED} permite
+     * que várias instâncias drenem a outbox em paralelo sem disputar as mesmas
+     * linhas; um evento só entra se todos os anteriores da mesma chave estiverem no
+     * lote, para que duas instâncias nunca publiquem o mesmo usuário ao mesmo tempo.
+     */
+    @Query(value = """
+            WITH candidates AS (
+                SELECT id, event_key FROM user_event_outbox
+                WHERE claimed_until IS NULL OR claimed_until < :now
+                ORDER BY id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            SELECT o.* FROM user_event_outbox o
+            JOIN candidates c ON c.id = o.id
+            WHERE NOT EXISTS (
+                SELECT 1 FROM user_event_outbox earlier
+                WHERE earlier.event_key = c.event_key
+                  AND earlier.id < c.id
+                  AND earlier.id NOT IN (SELECT id FROM candidates)
+            )
+            ORDER BY o.id
+            """, nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = :until where e.id in :ids")
+    int claim(@Param("ids") List<Long> ids, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    @Query("select min(e.createdAt) from OutboxEvent e")
+    LocalDateTime findOldestCreatedAt();
+}
@@ -0,0 +1,51 @@
+package edu.unifor.br.distrischool.authservice.repository;
+
+import edu.unifor.br.distrischool.authservice.entity.RefreshTokenFamily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenFamilyRepository extends JpaRepository<RefreshTokenFamily, UUID> {
+
+    /**
+     * INSERT direto: com id atribuído, {@code save} faria um SELECT antes para
+     * decidir entre persist e merge.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO refresh_token_families (id, user_id, created_at) VALUES (:id, :userId, :now)",
+            nativeQuery = true)
+    void insert(@Param("id") UUID id, @Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update RefreshTokenFamily f set f.revokedAt = :now where f.id = :id and f.revokedAt is null")
+    int revoke(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update RefreshTokenFamily f set f.revokedAt = :now where f.userId = :userId and f.revokedAt is null")
+    int revokeAllByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Remove até {@code limit} famílias sem nenhum token restante. Só considera
+     * famílias criadas antes de {@code createdBefore}, já que uma família mais nova
+     * ainda tem ao menos o token emitido junto com ela.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM refresh_token_families WHERE id IN (
+                SELECT f.id FROM refresh_token_families f
+                WHERE f.created_at < :createdBefore
+                  AND NOT EXISTS (SELECT 1 FROM refresh_tokens t WHERE t.family_id = f.id)
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int deleteEmpty(@Param("createdBefore") LocalDateTime createdBefore, @Param("limit") int limit);
+}
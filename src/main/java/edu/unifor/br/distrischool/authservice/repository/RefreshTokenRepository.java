@@ -0,0 +1,54 @@
+package edu.unifor.br.distrischool.authservice.repository;
+
+import edu.unifor.br.distrischool.authservice.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    @Modifying
+    @Query(value = "INSERT INTO refresh_tokens (jti, family_id, expires_at) VALUES (:jti, :familyId, :expiresAt)",
+            nativeQuery = true)
+    void insert(@Param("jti") UUID jti, @Param("familyId") UUID familyId, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Marca o token como usado somente se ele ainda não foi usado, não expirou e a
+     * família não foi revogada. Devolve 1 para exatamente uma de duas requisições
+     * concorrentes com o mesmo token; a outra é tratada como reuso.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE refresh_tokens t SET used_at = :now
+            FROM refresh_token_families f
+            WHERE t.jti = :jti
+              AND t.used_at IS NULL
+              AND t.expires_at > :now
+              AND f.id = t.family_id
+              AND f.revoked_at IS NULL
+            """, nativeQuery = true)
+    int markUsedIfActive(@Param("jti") UUID jti, @Param("now") LocalDateTime now);
+
+    /**
+     * Remove até {@code limit} tokens expirados; tokens bloqueados por outra
+     * instância fazendo a mesma varredura são pulados.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM refresh_tokens WHERE jti IN (
+                SELECT jti FROM refresh_tokens
+                WHERE expires_at <= :now
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
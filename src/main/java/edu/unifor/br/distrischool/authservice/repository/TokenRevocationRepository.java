@@ -0,0 +1,73 @@
+package edu.unifor.br.distrischool.authservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Acesso às tabelas da deny-list. Em JDBC puro porque a recarga percorre a
+ * tabela inteira e só precisa de dois campos por linha.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TokenRevocationRepository {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void revokeToken(UUID jti, Instant expiresAt) {
+        jdbcTemplate.update(
+                "INSERT INTO revoked_access_tokens (jti, expires_at) VALUES (?, ?) ON CONFLICT (jti) DO NOTHING",
+                jti, Timestamp.from(expiresAt));
+    }
+
+    public void revokeSubject(String subject, Instant notBefore) {
+        jdbcTemplate.update("""
+                INSERT INTO token_subject_cutoffs (subject, not_before) VALUES (?, ?)
+                ON CONFLICT (subject) DO UPDATE SET not_before = GREATEST(token_subject_cutoffs.not_before, EXCLUDED.not_before)
+                """, subject, Timestamp.from(notBefore));
+    }
+
+    public void forEachRevokedToken(Instant now, BiConsumer<UUID, Instant> consumer) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(
+                    "SELECT jti, expires_at FROM revoked_access_tokens WHERE expires_at > ?");
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.from(now));
+            return statement;
+        }, rs -> {
+            consumer.accept(rs.getObject(1, UUID.class), rs.getTimestamp(2).toInstant());
+        });
+    }
+
+    public void forEachSubjectCutoff(Instant since, BiConsumer<String, Instant> consumer) {
+        jdbcTemplate.query("SELECT subject, not_before FROM token_subject_cutoffs WHERE not_before > ?",
+                rs -> {
+                    consumer.accept(rs.getString(1), rs.getTimestamp(2).toInstant());
+                }, Timestamp.from(since));
+    }
+
+    /**
+     * Usuários desabilitados desde {@code since}; os desabilitados antes disso
+     * não têm mais access tokens válidos.
+     */
+    public void forEachDisabledSubject(Instant since, Consumer<String> consumer) {
+        jdbcTemplate.query("SELECT email FROM users WHERE enabled = FALSE AND updated_at > ?",
+                rs -> {
+                    consumer.accept(rs.getString(1));
+                }, Timestamp.from(since));
+    }
+
+    public int deleteExpired(Instant now, Instant cutoffHorizon) {
+        int tokens = jdbcTemplate.update("DELETE FROM revoked_access_tokens WHERE expires_at <= ?", Timestamp.from(now));
+        int subjects = jdbcTemplate.update("DELETE FROM token_subject_cutoffs WHERE not_before <= ?", Timestamp.from(cutoffHorizon));
+        return tokens + subjects;
+    }
+}
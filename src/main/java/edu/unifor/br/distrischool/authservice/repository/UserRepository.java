@@ -1,23 +1,58 @@
 package edu.unifor.br.distrischool.authservice.repository;
 
 import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.repository.projection.UserAuthView;
+import edu.unifor.br.distrischool.authservice.repository.projection.UserProfileView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
+/**
+ * Buscas por email comparam {@code lower(email)}, servidas pelo índice
+ * {@code uk_users_email_lower}.
+ */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
-    Optional<User> findByEmail(String email);
+    /**
+     * Entidade somente leitura: o Hibernate não guarda snapshot nem faz dirty
+     * checking dela. Para alterar o usuário, carregue com {@code findById}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select u from User u where lower(u.email) = lower(:email)")
+    Optional<User> findByEmail(@Param("email") String email);
 
-    boolean existsByEmail(String email);
+    @Query("""
+            select new edu.unifor.br.distrischool.authservice.repository.projection.UserAuthView(
+                u.id, u.name, u.email, u.password, u.role, u.emailVerified, u.enabled)
+            from User u where lower(u.email) = lower(:email)
+            """)
+    Optional<UserAuthView> findAuthViewByEmail(@Param("email") String email);
 
-    Optional<User> findByVerificationToken(String token);
+    @Query("""
+            select new edu.unifor.br.distrischool.authservice.repository.projection.UserProfileView(
+                u.id, u.name, u.email, u.role, u.emailVerified, u.createdAt, u.lastLogin)
+            from User u where lower(u.email) = lower(:email)
+            """)
+    Optional<UserProfileView> findProfileByEmail(@Param("email") String email);
 
-    Optional<User> findByResetPasswordTokenAndResetPasswordExpiresAfter(
-            String token,
-            LocalDateTime now
-    );
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM users WHERE lower(email) = lower(:email))", nativeQuery = true)
+    boolean existsByEmail(@Param("email") String email);
+
+    /** Recebe e devolve emails já em minúsculas. */
+    @Query("select lower(u.email) from User u where lower(u.email) in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.password = :password where lower(u.email) = lower(:email)")
+    int updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
 }
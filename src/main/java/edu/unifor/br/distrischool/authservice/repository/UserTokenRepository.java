@@ -0,0 +1,74 @@
+package edu.unifor.br.distrischool.authservice.repository;
+
+import edu.unifor.br.distrischool.authservice.entity.TokenPurpose;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Acesso à tabela {@code user_tokens}. Em JDBC puro porque as duas operações são
+ * um upsert e um DELETE ... RETURNING, que consomem o token em um único comando.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserTokenRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Grava o token do usuário para a finalidade, substituindo o anterior. A emissão
+     * vem do relógio da aplicação, o mesmo dos instantes com que ela é comparada.
+     */
+    public void save(Long userId, TokenPurpose purpose, byte[] tokenHash, Instant issuedAt, Instant expiresAt) {
+        jdbcTemplate.update("""
+                INSERT INTO user_tokens (token_hash, user_id, purpose, expires_at, created_at) VALUES (?, ?, ?, ?, ?)
+                ON CONFLICT (user_id, purpose) DO UPDATE
+                SET token_hash = EXCLUDED.token_hash, expires_at = EXCLUDED.expires_at, created_at = EXCLUDED.created_at
+                """, tokenHash, userId, purpose.name(), Timestamp.from(expiresAt), Timestamp.from(issuedAt));
+    }
+
+    /**
+     * Quando o token atual do usuário para a finalidade foi emitido, se houver um.
+     */
+    public Optional<LocalDateTime> findCreatedAt(Long userId, TokenPurpose purpose) {
+        return jdbcTemplate.query(
+                        "SELECT created_at FROM user_tokens WHERE user_id = ? AND purpose = ?",
+                        (rs, rowNum) -> rs.getTimestamp(1).toLocalDateTime(), userId, purpose.name())
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Remove o token se ele existir, for da finalidade e não estiver expirado, e
+     * devolve o dono. Duas requisições com o mesmo token não conseguem consumi-lo.
+     */
+    public Optional<Long> consume(TokenPurpose purpose, byte[] tokenHash, Instant now) {
+        return jdbcTemplate.query("""
+                DELETE FROM user_tokens
+                WHERE token_hash = ? AND purpose = ? AND expires_at > ?
+                RETURNING user_id
+                """, (rs, rowNum) -> rs.getLong(1), tokenHash, purpose.name(), Timestamp.from(now))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Remove até {@code limit} tokens expirados, pulando os que outra instância
+     * estiver removendo ao mesmo tempo.
+     */
+    public int deleteExpired(Instant now, int limit) {
+        return jdbcTemplate.update("""
+                DELETE FROM user_tokens WHERE token_hash IN (
+                    SELECT token_hash FROM user_tokens
+                    WHERE expires_at <= ?
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                """, Timestamp.from(now), limit);
+    }
+}
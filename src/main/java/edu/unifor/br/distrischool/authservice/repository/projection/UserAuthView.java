@@ -0,0 +1,18 @@
+package edu.unifor.br.distrischool.authservice.repository.projection;
+
+import edu.unifor.br.distrischool.authservice.entity.User;
+
+/**
+ * Colunas necessárias para autenticar um usuário, lidas sem instanciar a
+ * entidade nem registrá-la no contexto de persistência.
+ */
+public record UserAuthView(
+        Long id,
+        String name,
+        String email,
+        String password,
+        User.Role role,
+        boolean emailVerified,
+        boolean enabled
+) {
+}
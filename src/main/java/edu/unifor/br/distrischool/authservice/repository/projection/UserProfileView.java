@@ -0,0 +1,19 @@
+package edu.unifor.br.distrischool.authservice.repository.projection;
+
+import edu.unifor.br.distrischool.authservice.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Colunas exibidas no perfil do usuário autenticado; não inclui a senha.
+ */
+public record UserProfileView(
+        Long id,
+        String name,
+        String email,
+        User.Role role,
+        boolean emailVerified,
+        LocalDateTime createdAt,
+        LocalDateTime lastLogin
+) {
+}
@@ -0,0 +1,218 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import edu.unifor.br.distrischool.authservice.repository.TokenRevocationRepository;
+import edu.unifor.br.distrischool.authservice.service.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens revogados antes de expirar, consultados pelo filtro a cada
+ * requisição sem ir ao banco.
+ *
+ * <ul>
+ *   <li>por {@code jti} (logout): um filtro de Bloom descarta a quase totalidade
+ *   dos tokens válidos; só os positivos consultam o conjunto exato;</li>
+ *   <li>por usuário (reset de senha, usuário desabilitado): tokens emitidos antes
+ *   do corte são recusados.</li>
+ * </ul>
+ *
+ * <p>O banco é a fonte da verdade. Revogações feitas nesta instância valem assim
+ * que a transação que as gravou confirma; as das outras instâncias entram na
+ * próxima recarga, que também descarta o que já expirou.
+ */
+@Service
+@Slf4j
+public class AccessTokenDenyList {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    /** Corte para usuários desabilitados: recusa qualquer token. */
+    private static final Instant ALL_TOKENS = Instant.MAX;
+
+    private final TokenRevocationRepository repository;
+    private final long accessTokenLifetimeMillis;
+    private final Counter rejected;
+    private final Timer rebuildTimer;
+
+    private volatile Snapshot snapshot = Snapshot.empty();
+
+    public AccessTokenDenyList(
+            TokenRevocationRepository repository,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.expiration}") long accessTokenLifetimeMillis
+    ) {
+        this.repository = repository;
+        this.accessTokenLifetimeMillis = accessTokenLifetimeMillis;
+        this.rejected = Counter.builder("auth.deny-list.rejected")
+                .description("Access tokens recusados por revogação")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("auth.deny-list.rebuild")
+                .description("Tempo de recarga da deny-list a partir do banco")
+                .register(meterRegistry);
+        Gauge.builder("auth.deny-list.size", this, denyList -> denyList.snapshot.tokens().size())
+                .tag("type", "jti")
+                .register(meterRegistry);
+        Gauge.builder("auth.deny-list.size", this, denyList -> denyList.snapshot.cutoffs().size())
+                .tag("type", "subject")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        rebuild();
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        Snapshot current = snapshot;
+        boolean revoked = isRevokedBySubject(current, token) || isRevokedById(current, token);
+        if (revoked) {
+            rejected.increment();
+        }
+        return revoked;
+    }
+
+    public void revoke(VerifiedToken token) {
+        UUID jti = parseId(token.id());
+        if (jti == null || token.expiresAt() == null) {
+            return;
+        }
+        repository.revokeToken(jti, token.expiresAt());
+        afterCommit(() -> addToken(jti, token.expiresAt()));
+    }
+
+    /**
+     * Recusa todos os tokens do usuário emitidos até agora. A claim {@code iat} tem
+     * resolução de segundos, então o corte é truncado para que um token emitido
+     * logo em seguida, no mesmo segundo, continue válido.
+     */
+    public void revokeSubject(String subject) {
+        Instant notBefore = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        repository.revokeSubject(subject, notBefore);
+        afterCommit(() -> addCutoff(subject, notBefore));
+    }
+
+    private synchronized void addToken(UUID jti, Instant expiresAt) {
+        snapshot.add(jti, expiresAt);
+    }
+
+    private synchronized void addCutoff(String subject, Instant notBefore) {
+        snapshot.cutoffs().merge(subject, notBefore, AccessTokenDenyList::later);
+    }
+
+    /**
+     * Aplica a mudança local só depois do commit, para que um rollback não deixe
+     * na memória uma revogação que o banco não tem.
+     */
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.security.deny-list.rebuild-interval:30s}",
+            fixedDelayString = "${app.security.deny-list.rebuild-interval:30s}"
+    )
+    public void rebuild() {
+        rebuildTimer.record(() -> {
+            Instant now = Instant.now();
+            Instant horizon = now.minusMillis(accessTokenLifetimeMillis);
+            repository.deleteExpired(now, horizon);
+
+            Map<UUID, Instant> tokens = new ConcurrentHashMap<>();
+            repository.forEachRevokedToken(now, tokens::put);
+
+            Map<String, Instant> cutoffs = new ConcurrentHashMap<>();
+            repository.forEachSubjectCutoff(horizon, cutoffs::put);
+            repository.forEachDisabledSubject(horizon, subject -> cutoffs.put(subject, ALL_TOKENS));
+
+            swap(tokens, cutoffs, now, horizon);
+            log.debug("Deny-list recarregada: {} tokens, {} usuários", tokens.size(), cutoffs.size());
+        });
+    }
+
+    /**
+     * Junta ao estado lido do banco as revogações locais que ainda não estavam
+     * lá quando a leitura começou, e troca o snapshot. Nos cortes por usuário
+     * prevalece o mais recente; o corte de usuário desabilitado não é herdado,
+     * porque só o banco sabe se ele foi reabilitado.
+     */
+    private synchronized void swap(Map<UUID, Instant> tokens, Map<String, Instant> cutoffs, Instant now, Instant horizon) {
+        snapshot.tokens().forEach((jti, expiresAt) -> {
+            if (expiresAt.isAfter(now)) {
+                tokens.putIfAbsent(jti, expiresAt);
+            }
+        });
+        snapshot.cutoffs().forEach((subject, notBefore) -> {
+            if (!ALL_TOKENS.equals(notBefore) && notBefore.isAfter(horizon)) {
+                cutoffs.merge(subject, notBefore, AccessTokenDenyList::later);
+            }
+        });
+
+        BloomFilter bloom = BloomFilter.create(tokens.size() * 2L, FALSE_POSITIVE_RATE);
+        tokens.keySet().forEach(bloom::put);
+        snapshot = new Snapshot(bloom, tokens, cutoffs);
+    }
+
+    private static Instant later(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static boolean isRevokedBySubject(Snapshot current, VerifiedToken token) {
+        if (current.cutoffs().isEmpty() || token.subject() == null) {
+            return false;
+        }
+        Instant notBefore = current.cutoffs().get(token.subject());
+        return notBefore != null && (token.issuedAt() == null || token.issuedAt().isBefore(notBefore));
+    }
+
+    private static boolean isRevokedById(Snapshot current, VerifiedToken token) {
+        UUID jti = parseId(token.id());
+        return jti != null && current.bloom().mightContain(jti) && current.tokens().containsKey(jti);
+    }
+
+    private static UUID parseId(String id) {
+        if (id == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private record Snapshot(BloomFilter bloom, Map<UUID, Instant> tokens, Map<String, Instant> cutoffs) {
+
+        static Snapshot empty() {
+            return new Snapshot(BloomFilter.create(0, FALSE_POSITIVE_RATE), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+
+        void add(UUID jti, Instant expiresAt) {
+            tokens.put(jti, expiresAt);
+            bloom.put(jti);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import edu.unifor.br.distrischool.authservice.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limita tentativas de login e de pedido de reset de senha por IP e por conta,
+ * antes de qualquer consulta ao banco ou cálculo de hash. O limite por IP
+ * segura ataques de credential stuffing contra muitas contas; o limite por
+ * conta segura força bruta distribuída contra uma conta só.
+ *
+ * <p>O IP é o {@code remoteAddr} da requisição; atrás de proxy, configure
+ * {@code server.forward-headers-strategy} para que ele reflita o cliente.
+ */
+@Service
+@Slf4j
+public class AuthRateLimiter {
+
+    /** Intervalo mínimo entre dois logs de tentativa recusada; as demais só contam na métrica. */
+    private static final long REJECTION_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private static final List<String> OPERATIONS = List.of("login", "password-reset");
+    private static final List<String> SCOPES = List.of("ip", "account");
+
+    private final RateLimitStore store;
+    private final Map<RejectionKey, Counter> rejectedCounters;
+    private final AtomicLong nextRejectionLogAt = new AtomicLong(System.nanoTime());
+    private final LongAdder suppressedRejectionLogs = new LongAdder();
+
+    @Value("${app.security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.rate-limit.login.ip.limit:300}")
+    private int loginIpLimit;
+
+    @Value("${app.security.rate-limit.login.ip.window:1m}")
+    private Duration loginIpWindow;
+
+    @Value("${app.security.rate-limit.login.account.limit:10}")
+    private int loginAccountLimit;
+
+    @Value("${app.security.rate-limit.login.account.window:5m}")
+    private Duration loginAccountWindow;
+
+    @Value("${app.security.rate-limit.password-reset.ip.limit:20}")
+    private int resetIpLimit;
+
+    @Value("${app.security.rate-limit.password-reset.ip.window:1h}")
+    private Duration resetIpWindow;
+
+    @Value("${app.security.rate-limit.password-reset.account.limit:3}")
+    private int resetAccountLimit;
+
+    @Value("${app.security.rate-limit.password-reset.account.window:1h}")
+    private Duration resetAccountWindow;
+
+    public AuthRateLimiter(RateLimitStore store, MeterRegistry meterRegistry) {
+        this.store = store;
+        Map<RejectionKey, Counter> counters = new HashMap<>();
+        for (String operation : OPERATIONS) {
+            for (String scope : SCOPES) {
+                counters.put(new RejectionKey(operation, scope), Counter.builder("auth.ratelimit.rejected")
+                        .description("Tentativas rejeitadas pelo limite de taxa")
+                        .tag("operation", operation)
+                        .tag("scope", scope)
+                        .register(meterRegistry));
+            }
+        }
+        this.rejectedCounters = Map.copyOf(counters);
+    }
+
+    public void checkLogin(String email) {
+        check("login", email, loginIpLimit, loginIpWindow, loginAccountLimit, loginAccountWindow);
+    }
+
+    /**
+     * Zera o contador da conta, para que erros de digitação anteriores não
+     * contem contra o usuário legítimo.
+     */
+    public void loginSucceeded(String email) {
+        if (enabled) {
+            store.reset(key("login", "account", normalize(email)));
+        }
+    }
+
+    public void checkPasswordReset(String email) {
+        check("password-reset", email, resetIpLimit, resetIpWindow, resetAccountLimit, resetAccountWindow);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.rate-limit.sweep-interval:1m}")
+    public void evictExpired() {
+        store.evictExpired();
+    }
+
+    private void check(
+            String operation,
+            String email,
+            int ipLimit,
+            Duration ipWindow,
+            int accountLimit,
+            Duration accountWindow
+    ) {
+        if (!enabled) {
+            return;
+        }
+
+        String ip = currentClientIp();
+        if (ip != null) {
+            acquire(operation, "ip", ip, ipLimit, ipWindow);
+        }
+        if (email != null) {
+            acquire(operation, "account", normalize(email), accountLimit, accountWindow);
+        }
+    }
+
+    private void acquire(String operation, String scope, String subject, int limit, Duration window) {
+        Duration retryAfter = store.tryAcquire(key(operation, scope, subject), limit, window);
+        if (retryAfter.isZero()) {
+            return;
+        }
+
+        rejectedCounters.get(new RejectionKey(operation, scope)).increment();
+        logRejected(operation, scope, subject);
+
+        throw new TooManyRequestsException(
+                "Muitas tentativas. Tente novamente em " + Math.max(1, retryAfter.toSeconds()) + " segundos.",
+                retryAfter
+        );
+    }
+
+    /**
+     * Recusas chegam em rajadas justamente durante um ataque: um log por intervalo,
+     * com a contagem das omitidas, sem o email ou IP escolhido pelo atacante. O
+     * sujeito de cada recusa fica só no nível DEBUG.
+     */
+    private void logRejected(String operation, String scope, String subject) {
+        log.debug("Limite de tentativas de {} excedido ({}): {}", operation, scope, subject);
+
+        long now = System.nanoTime();
+        long next = nextRejectionLogAt.get();
+        if (now - next < 0 || !nextRejectionLogAt.compareAndSet(next, now + REJECTION_LOG_INTERVAL_NANOS)) {
+            suppressedRejectionLogs.increment();
+            return;
+        }
+        log.warn("Limite de tentativas de {} excedido ({}) ({} recusas omitidas desde o último log)",
+                operation, scope, suppressedRejectionLogs.sumThenReset());
+    }
+
+    private static String key(String operation, String scope, String subject) {
+        return operation + ':' + scope + ':' + subject;
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String currentClientIp() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            return request.getRemoteAddr();
+        }
+        return null;
+    }
+
+    private record RejectionKey(String operation, String scope) {
+    }
+}
@@ -0,0 +1,63 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.repository.projection.UserAuthView;
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Snapshot imutável dos dados de autenticação de um {@link User}, seguro para
+ * ser compartilhado entre threads e mantido em cache fora da sessão JPA.
+ */
+@Value
+@Builder(toBuilder = true)
+public class AuthUser implements UserDetails {
+
+    Long id;
+    String name;
+    String email;
+    String password;
+    User.Role role;
+    boolean emailVerified;
+    boolean enabled;
+
+    public static AuthUser from(User user) {
+        return AuthUser.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .role(user.getRole())
+                .emailVerified(user.isEmailVerified())
+                .enabled(user.isEnabled())
+                .build();
+    }
+
+    public static AuthUser from(UserAuthView user) {
+        return AuthUser.builder()
+                .id(user.id())
+                .name(user.name())
+                .email(user.email())
+                .password(user.password())
+                .role(user.role())
+                .emailVerified(user.emailVerified())
+                .enabled(user.enabled())
+                .build();
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -0,0 +1,133 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import edu.unifor.br.distrischool.authservice.security.VerifiedTokenCache.CachedAuthentication;
+import edu.unifor.br.distrischool.authservice.service.JwtService;
+import edu.unifor.br.distrischool.authservice.service.VerifiedToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Caminho de um access token até a autenticação, compartilhado pelo filtro e
+ * pela introspecção: pré-checagem estrutural, cache de tokens verificados,
+ * verificação de assinatura e deny-list. Refresh tokens nunca autenticam.
+ */
+@Component
+@Slf4j
+public class BearerTokenAuthenticator {
+
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+    private final AccessTokenDenyList denyList;
+    private final VerifiedTokenCache tokenCache;
+
+    @Value("${jwt.trust-claims.enabled:false}")
+    private boolean trustClaims;
+
+    public BearerTokenAuthenticator(
+            JwtService jwtService,
+            UserDetailsService userDetailsService,
+            AccessTokenDenyList denyList,
+            VerifiedTokenCache tokenCache
+    ) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.denyList = denyList;
+        this.tokenCache = tokenCache;
+    }
+
+    /**
+     * Se {@code value}, a partir de {@code start}, tem formato de JWS compacto com
+     * um {@code alg} que o serviço aceita. Não aloca cópias do valor.
+     */
+    public boolean isWellFormed(String value, int start) {
+        String algorithm = CompactJwtPrecheck.algorithm(value, start);
+        return algorithm != null && jwtService.getAcceptedAlgorithms().contains(algorithm);
+    }
+
+    /**
+     * Autenticação de um token já pré-checado, a partir do cache ou verificando-o.
+     * Devolve {@code null} se o token não autentica ou foi revogado; a deny-list é
+     * consultada também nos acertos do cache.
+     *
+     * @throws io.jsonwebtoken.JwtException se o token for inválido ou estiver expirado
+     */
+    public CachedAuthentication authenticate(String jwt) {
+        CachedAuthentication authentication = tokenCache.get(jwt, this::load);
+        return authentication != null && !isRevoked(authentication.token()) ? authentication : null;
+    }
+
+    /**
+     * Claims de um access token válido e não revogado, sem carregar o usuário:
+     * num acerto do cache não há verificação; numa falta, só a assinatura é
+     * verificada. Devolve {@code null} se o token não está ativo.
+     *
+     * @throws io.jsonwebtoken.JwtException se o token for inválido ou estiver expirado
+     */
+    public VerifiedToken verify(String jwt) {
+        if (!isWellFormed(jwt, 0)) {
+            return null;
+        }
+
+        VerifiedToken token;
+        if (trustClaims) {
+            // Montar o principal a partir das claims não vai ao banco; o resultado fica no cache
+            CachedAuthentication authentication = tokenCache.get(jwt, this::load);
+            token = authentication != null ? authentication.token() : null;
+        } else {
+            CachedAuthentication cached = tokenCache.getIfPresent(jwt);
+            token = cached != null ? cached.token() : accessToken(jwtService.verify(jwt));
+        }
+        return token != null && !isRevoked(token) ? token : null;
+    }
+
+    private boolean isRevoked(VerifiedToken token) {
+        if (denyList.isRevoked(token)) {
+            log.debug("Token revogado: {}", token.subject());
+            return true;
+        }
+        return false;
+    }
+
+    private CachedAuthentication load(String jwt) {
+        VerifiedToken token = accessToken(jwtService.verify(jwt));
+        if (token == null) {
+            return null;
+        }
+
+        return trustClaims
+                ? authenticateFromClaims(token)
+                : authenticateFromUserDetails(token);
+    }
+
+    /** Refresh tokens só servem para /auth/refresh-token e /auth/logout. */
+    private static VerifiedToken accessToken(VerifiedToken token) {
+        return token.subject() == null || token.isRefreshToken() ? null : token;
+    }
+
+    private CachedAuthentication authenticateFromUserDetails(VerifiedToken token) {
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(token.subject());
+
+        if (!token.isIssuedTo(userDetails)) {
+            return null;
+        }
+
+        return new CachedAuthentication(token, userDetails, userDetails.getAuthorities());
+    }
+
+    private CachedAuthentication authenticateFromClaims(VerifiedToken token) {
+        // Usuário desabilitado ou com senha redefinida já está na deny-list
+        List<GrantedAuthority> authorities = token.roles().stream()
+                .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+
+        return new CachedAuthentication(token, token.subject(), authorities);
+    }
+}
@@ -0,0 +1,73 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de UUIDs. {@link #mightContain} nunca dá falso negativo; falsos
+ * positivos ocorrem na taxa escolhida enquanto o número de elementos não passar
+ * da capacidade. Os bits ficam em um {@link AtomicLongArray}, então inserções
+ * são visíveis de imediato para leitores em outras threads.
+ */
+final class BloomFilter {
+
+    private static final int MIN_BITS = 1024;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.words = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+        this.bitCount = words.length() * 64L;
+        this.hashCount = hashCount;
+    }
+
+    static BloomFilter create(long expectedElements, double falsePositiveRate) {
+        long n = Math.max(1, expectedElements);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bits = Math.max(MIN_BITS, bits);
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        return new BloomFilter(bits, hashes);
+    }
+
+    void put(UUID value) {
+        long h1 = mix(value.getMostSignificantBits() ^ mix(value.getLeastSignificantBits()));
+        long h2 = mix(value.getLeastSignificantBits() ^ h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                words.getAndUpdate(word, current -> current | mask);
+            }
+        }
+    }
+
+    boolean mightContain(UUID value) {
+        long h1 = mix(value.getMostSignificantBits() ^ mix(value.getLeastSignificantBits()));
+        long h2 = mix(value.getLeastSignificantBits() ^ h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long bitSize() {
+        return bitCount;
+    }
+
+    /**
+     * Finalizador do SplitMix64: espalha bem os bits mesmo de UUIDs com partes fixas.
+     * Os dois hashes dependem das duas metades, senão UUIDs com a mesma metade alta
+     * compartilhariam o ponto de partida da sequência de bits.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
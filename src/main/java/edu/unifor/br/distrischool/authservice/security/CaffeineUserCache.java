@@ -0,0 +1,57 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Near cache de {@link UserDetails} na frente do {@code UserRepository.findAuthViewByEmail}.
+ * Limitado por tamanho (eviction W-TinyLFU do Caffeine) e por TTL; as entradas
+ * são removidas explicitamente pelo {@link UserCacheInvalidator} quando o usuário muda.
+ * A busca por email não diferencia maiúsculas, então a chave é o email normalizado.
+ */
+@Component
+public class CaffeineUserCache implements UserCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    public CaffeineUserCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.user-details.max-size:50000}") long maxSize,
+            @Value("${app.cache.user-details.ttl:10m}") Duration ttl
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return cache.getIfPresent(key(username));
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(key(user.getUsername()), user);
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.invalidate(key(username));
+    }
+
+    private static String key(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+}
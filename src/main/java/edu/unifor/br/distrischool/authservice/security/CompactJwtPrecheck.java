@@ -0,0 +1,147 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Verificação estrutural de um JWS compacto ({@code header.payload.assinatura})
+ * antes do parse completo, para recusar lixo sem decodificar o payload nem
+ * verificar assinatura. Percorre o valor uma vez, sem copiá-lo; só o cabeçalho,
+ * limitado a {@link #MAX_HEADER_LENGTH}, é decodificado para ler o {@code alg}.
+ */
+final class CompactJwtPrecheck {
+
+    /** Bem acima de qualquer token emitido pelo serviço, que fica abaixo de 1 KB. */
+    static final int MAX_LENGTH = 4096;
+    static final int MAX_HEADER_LENGTH = 512;
+
+    private static final byte[] ALG_KEY = "\"alg\"".getBytes(StandardCharsets.US_ASCII);
+
+    private CompactJwtPrecheck() {
+    }
+
+    /**
+     * Devolve o {@code alg} do cabeçalho se {@code value}, a partir de
+     * {@code start}, tem formato de JWS compacto assinado; {@code null} caso contrário.
+     */
+    static String algorithm(String value, int start) {
+        int length = value.length() - start;
+        if (length < 5 || length > MAX_LENGTH) {
+            return null;
+        }
+
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return null;
+                }
+            } else if (!isBase64Url(c)) {
+                return null;
+            }
+        }
+
+        // Três segmentos não vazios: sem assinatura ("alg": "none") não passa daqui
+        if (secondDot < 0
+                || firstDot == start
+                || secondDot == firstDot + 1
+                || secondDot == value.length() - 1
+                || firstDot - start > MAX_HEADER_LENGTH) {
+            return null;
+        }
+
+        byte[] header = decode(value, start, firstDot);
+        return header != null ? readAlgorithm(header) : null;
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+
+    private static int sextet(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 26;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 52;
+        }
+        return c == '-' ? 62 : 63;
+    }
+
+    /** Base64url sem padding; os caracteres já foram validados. */
+    private static byte[] decode(String value, int from, int to) {
+        int chars = to - from;
+        if (chars % 4 == 1) {
+            return null;
+        }
+        byte[] out = new byte[chars * 3 / 4];
+        int bits = 0;
+        int bitCount = 0;
+        int position = 0;
+        for (int i = from; i < to; i++) {
+            bits = (bits << 6) | sextet(value.charAt(i));
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                out[position++] = (byte) (bits >> bitCount);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Lê o valor string da chave {@code "alg"} do JSON do cabeçalho. Não é um
+     * parser JSON: basta para recusar algoritmos que o serviço não aceita, e o
+     * jjwt valida o cabeçalho por completo em seguida.
+     */
+    private static String readAlgorithm(byte[] header) {
+        int key = indexOf(header, ALG_KEY);
+        if (key < 0) {
+            return null;
+        }
+        int i = skipWhitespace(header, key + ALG_KEY.length);
+        if (i >= header.length || header[i] != ':') {
+            return null;
+        }
+        i = skipWhitespace(header, i + 1);
+        if (i >= header.length || header[i] != '"') {
+            return null;
+        }
+        int begin = i + 1;
+        for (int end = begin; end < header.length; end++) {
+            if (header[end] == '"') {
+                return new String(header, begin, end - begin, StandardCharsets.US_ASCII);
+            }
+        }
+        return null;
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+        outer:
+        for (int i = 0; i <= haystack.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(byte[] bytes, int from) {
+        int i = from;
+        while (i < bytes.length && (bytes[i] == ' ' || bytes[i] == '\t' || bytes[i] == '\n' || bytes[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+}
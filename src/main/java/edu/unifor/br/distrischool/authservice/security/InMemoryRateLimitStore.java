@@ -0,0 +1,112 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Janela deslizante aproximada (contagem da janela atual mais a da anterior,
+ * ponderada pelo quanto dela ainda se sobrepõe). Cada chave guarda um estado
+ * imutável trocado por CAS, então tentativas concorrentes não bloqueiam umas
+ * às outras nem o mapa.
+ */
+@Component
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final ConcurrentMap<String, AtomicReference<Window>> windows = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public InMemoryRateLimitStore() {
+        this(Clock.systemUTC());
+    }
+
+    InMemoryRateLimitStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Duration tryAcquire(String key, int limit, Duration window) {
+        long now = clock.millis();
+        long length = window.toMillis();
+        AtomicReference<Window> ref = windows.computeIfAbsent(key, k -> new AtomicReference<>(new Window(now, length, 0, 0)));
+
+        while (true) {
+            Window current = ref.get();
+            Window rolled = current.rollTo(now);
+
+            if (rolled.estimate(now) + 1 > limit) {
+                ref.compareAndSet(current, rolled);
+                return Duration.ofMillis(rolled.retryAfter(now, limit));
+            }
+            if (ref.compareAndSet(current, rolled.increment())) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    @Override
+    public void reset(String key) {
+        windows.remove(key);
+    }
+
+    /**
+     * Uma chave sem tentativas há duas janelas tem estimativa zero e pode ser
+     * descartada; no pior caso uma tentativa concorrente à remoção não é contada.
+     */
+    @Override
+    public void evictExpired() {
+        long now = clock.millis();
+        windows.values().removeIf(ref -> ref.get().isIdle(now));
+    }
+
+    int size() {
+        return windows.size();
+    }
+
+    private record Window(long start, long length, int previous, int current) {
+
+        Window rollTo(long now) {
+            long elapsedWindows = (now - start) / length;
+            if (elapsedWindows == 0) {
+                return this;
+            }
+            if (elapsedWindows == 1) {
+                return new Window(start + length, length, current, 0);
+            }
+            return new Window(start + elapsedWindows * length, length, 0, 0);
+        }
+
+        Window increment() {
+            return new Window(start, length, previous, current + 1);
+        }
+
+        double estimate(long now) {
+            double previousWeight = 1.0 - (double) (now - start) / length;
+            return previous * previousWeight + current;
+        }
+
+        /**
+         * Tempo até a estimativa cair o bastante para aceitar mais uma tentativa,
+         * supondo que nenhuma outra seja registrada até lá.
+         */
+        long retryAfter(long now, int limit) {
+            long elapsed = now - start;
+            if (current + 1 <= limit) {
+                // Basta o peso da janela anterior diminuir
+                double needed = 1.0 - (double) (limit - current - 1) / previous;
+                return Math.max(1, (long) Math.ceil(needed * length) - elapsed);
+            }
+            // A janela atual precisa virar a anterior e perder peso
+            double needed = 1.0 - (double) (limit - 1) / current;
+            return (length - elapsed) + (long) Math.ceil(Math.max(0, needed) * length);
+        }
+
+        boolean isIdle(long now) {
+            return now - start >= 2 * length;
+        }
+    }
+}
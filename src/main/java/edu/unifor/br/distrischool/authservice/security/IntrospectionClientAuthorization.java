@@ -0,0 +1,49 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.function.Supplier;
+
+/**
+ * Quem pode chamar os endpoints de introspecção: serviços que enviam o segredo
+ * compartilhado em {@value #SECRET_HEADER} ou usuários autenticados com papel
+ * ADMIN. Sem {@code app.security.introspection.client-secret}, só ADMIN.
+ */
+@Component
+public class IntrospectionClientAuthorization implements AuthorizationManager<RequestAuthorizationContext> {
+
+    public static final String SECRET_HEADER = "X-Introspection-Secret";
+
+    private static final AuthorizationManager<RequestAuthorizationContext> ADMIN = AuthorityAuthorizationManager.hasRole("ADMIN");
+
+    private final byte[] clientSecret;
+
+    public IntrospectionClientAuthorization(@Value("${app.security.introspection.client-secret:}") String clientSecret) {
+        this.clientSecret = clientSecret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        if (hasClientSecret(context.getRequest())) {
+            return new AuthorizationDecision(true);
+        }
+        return ADMIN.check(authentication, context);
+    }
+
+    /** Comparação em tempo constante, para não vazar o segredo pelo tempo de resposta. */
+    private boolean hasClientSecret(HttpServletRequest request) {
+        String presented = request.getHeader(SECRET_HEADER);
+        return clientSecret.length > 0
+                && presented != null
+                && MessageDigest.isEqual(clientSecret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,29 +1,54 @@
 package edu.unifor.br.distrischool.authservice.security;
 
-import edu.unifor.br.distrischool.authservice.service.JwtService;
+import edu.unifor.br.distrischool.authservice.security.VerifiedTokenCache.CachedAuthentication;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Autentica requisições com {@code Authorization: Bearer <jwt>}. Valores sem
+ * formato de JWS compacto ou com {@code alg} que o serviço não emite são
+ * recusados antes do parse, sem alocar cópias do token; só tokens
+ * estruturalmente válidos chegam ao cache e à verificação de assinatura.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
-    private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+
+    /** Intervalo mínimo entre dois logs de token recusado; os demais só contam na métrica. */
+    private static final long FAILURE_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final BearerTokenAuthenticator authenticator;
+
+    private final Counter malformedCounter;
+    private final Counter invalidCounter;
+    private final AtomicLong nextFailureLogAt = new AtomicLong(System.nanoTime());
+    private final LongAdder suppressedFailureLogs = new LongAdder();
+
+    public JwtAuthenticationFilter(BearerTokenAuthenticator authenticator, MeterRegistry meterRegistry) {
+        this.authenticator = authenticator;
+        this.malformedCounter = rejectedCounter(meterRegistry, "malformed");
+        this.invalidCounter = rejectedCounter(meterRegistry, "invalid");
+    }
 
     @Override
     protected void doFilterInternal(
@@ -34,37 +59,65 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!authenticator.isWellFormed(authHeader, BEARER_PREFIX.length())) {
+            malformedCounter.increment();
+            logRejected("malformado ou com algoritmo não aceito", null);
             filterChain.doFilter(request, response);
             return;
         }
 
         try {
-            final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
-
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    log.debug("Usuário autenticado: {}", userEmail);
-                }
+            final String jwt = authHeader.substring(BEARER_PREFIX.length());
+
+            CachedAuthentication authentication = authenticator.authenticate(jwt);
+
+            if (authentication != null) {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        authentication.principal(),
+                        null,
+                        authentication.authorities()
+                );
+                authToken.setDetails(DETAILS_SOURCE.buildDetails(request));
+
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                log.debug("Usuário autenticado: {}", authentication.token().subject());
             }
         } catch (Exception e) {
-            log.error("Erro ao processar token JWT: {}", e.getMessage());
+            invalidCounter.increment();
+            logRejected("inválido", e);
         }
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Tráfego com tokens ruins costuma vir em rajadas; um log por intervalo, com
+     * a contagem dos omitidos, basta para diagnóstico sem custar uma linha por
+     * requisição. O detalhe de cada recusa fica no nível DEBUG.
+     */
+    private void logRejected(String reason, Exception e) {
+        log.debug("Token JWT recusado ({}): {}", reason, e != null ? e.getMessage() : "-");
+
+        long now = System.nanoTime();
+        long next = nextFailureLogAt.get();
+        if (now - next < 0 || !nextFailureLogAt.compareAndSet(next, now + FAILURE_LOG_INTERVAL_NANOS)) {
+            suppressedFailureLogs.increment();
+            return;
+        }
+        log.warn("Token JWT recusado ({}): {} ({} recusas omitidas desde o último log)",
+                reason, e != null ? e.getMessage() : "-", suppressedFailureLogs.sumThenReset());
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("auth.jwt.rejected")
+                .description("Bearer tokens recusados pelo filtro de autenticação")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
 }
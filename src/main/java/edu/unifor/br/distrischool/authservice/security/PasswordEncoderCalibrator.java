@@ -0,0 +1,52 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+
+/**
+ * Escolhe, na inicialização, o maior custo de hash cuja verificação ainda fica
+ * dentro da latência alvo neste host.
+ */
+@Slf4j
+public final class PasswordEncoderCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-Sample-Passw0rd";
+    private static final int SAMPLES = 3;
+
+    private PasswordEncoderCalibrator() {
+    }
+
+    /**
+     * Aumenta o custo a partir de {@code minCost} enquanto a média de {@code matches}
+     * ficar abaixo de {@code target}; nunca devolve menos que {@code minCost}.
+     */
+    public static int calibrate(String name, IntFunction<PasswordEncoder> encoderForCost,
+                                int minCost, int maxCost, Duration target) {
+        int chosen = minCost;
+        for (int cost = minCost; cost <= maxCost; cost++) {
+            Duration latency = measure(encoderForCost.apply(cost));
+            log.info("Calibração {}: custo={} latência média={}ms", name, cost, latency.toMillis());
+            if (latency.compareTo(target) > 0) {
+                break;
+            }
+            chosen = cost;
+        }
+        log.info("Calibração {}: custo escolhido={} (alvo={}ms)", name, chosen, target.toMillis());
+        return chosen;
+    }
+
+    private static Duration measure(PasswordEncoder encoder) {
+        String hash = encoder.encode(SAMPLE_PASSWORD);
+        // aquecimento
+        encoder.matches(SAMPLE_PASSWORD, hash);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SAMPLES; i++) {
+            encoder.matches(SAMPLE_PASSWORD, hash);
+        }
+        return Duration.ofNanos((System.nanoTime() - start) / SAMPLES);
+    }
+}
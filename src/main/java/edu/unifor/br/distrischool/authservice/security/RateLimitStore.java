@@ -0,0 +1,28 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import java.time.Duration;
+
+/**
+ * Contadores de janela deslizante por chave. A implementação padrão é em
+ * memória ({@link InMemoryRateLimitStore}); com várias instâncias atrás do
+ * balanceador, uma implementação compartilhada (ex.: Redis) pode ser registrada
+ * como bean {@code @Primary} para que os limites valham para o cluster todo.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Registra uma tentativa para a chave se ela couber em {@code limit} por
+     * {@code window}.
+     *
+     * @return {@link Duration#ZERO} se a tentativa foi aceita, ou o tempo até a
+     * próxima tentativa ser aceita
+     */
+    Duration tryAcquire(String key, int limit, Duration window);
+
+    void reset(String key);
+
+    /**
+     * Remove as chaves sem tentativas recentes.
+     */
+    void evictExpired();
+}
@@ -0,0 +1,25 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import edu.unifor.br.distrischool.authservice.event.UserChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserCacheInvalidator {
+
+    private final UserCache userCache;
+    private final VerifiedTokenCache tokenCache;
+
+    // Depois do commit, para que uma leitura concorrente não recoloque no cache o estado antigo
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        userCache.removeUserFromCache(event.email());
+        tokenCache.invalidateSubject(event.email());
+        log.debug("Cache de usuário invalidado para: {}", event.email());
+    }
+}
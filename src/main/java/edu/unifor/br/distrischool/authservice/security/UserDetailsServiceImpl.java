@@ -1,23 +1,59 @@
 package edu.unifor.br.distrischool.authservice.security;
 
+import edu.unifor.br.distrischool.authservice.event.UserChangedEvent;
 import edu.unifor.br.distrischool.authservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+@Slf4j
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByEmail(username)
+        UserDetails cached = userCache.getUserFromCache(username);
+        if (cached != null) {
+            return cached;
+        }
+
+        UserDetails user = userRepository.findAuthViewByEmail(username)
+                .map(AuthUser::from)
                 .orElseThrow(() -> new UsernameNotFoundException(
                         "Usuário não encontrado com email: " + username
                 ));
+
+        userCache.putUserInCache(user);
+        return user;
+    }
+
+    /**
+     * Chamado pelo {@code DaoAuthenticationProvider} após um login bem-sucedido quando
+     * o hash armazenado usa um algoritmo ou custo diferente do configurado.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByEmail(user.getUsername(), newPassword);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
+        log.info("Hash de senha atualizado para o formato atual: {}", user.getUsername());
+
+        if (user instanceof AuthUser authUser) {
+            return authUser.toBuilder().password(newPassword).build();
+        }
+        return loadUserByUsername(user.getUsername());
     }
 }
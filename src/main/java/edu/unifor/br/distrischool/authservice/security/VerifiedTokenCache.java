@@ -0,0 +1,216 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import edu.unifor.br.distrischool.authservice.service.VerifiedToken;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Resultado da verificação de cada access token, para que o mesmo token enviado
+ * centenas de vezes não tenha a assinatura verificada e o principal montado a
+ * cada requisição.
+ *
+ * <p>A chave é o SHA-256 do token, então o cache não guarda tokens utilizáveis.
+ * Cada entrada vale até o menor entre a expiração do token e
+ * {@code app.security.token-cache.ttl}. Revogações não precisam passar por aqui:
+ * o filtro consulta a deny-list também nos acertos. Alterações no usuário
+ * descartam as entradas dele, que podem carregar o {@code UserDetails} antigo.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final boolean enabled;
+    private final Ticker ticker;
+    private final Cache<TokenDigest, Entry> cache;
+
+    /** Momento da última alteração de cada usuário; só importa enquanto houver entradas anteriores a ela. */
+    private final Cache<String, Long> subjectChanges;
+
+    /**
+     * Alteração mais recente descartada por tamanho: sem saber de quem era, toda
+     * entrada anterior a ela é tratada como desatualizada.
+     */
+    private final AtomicLong evictedChangesUpTo;
+
+    private final LongAdder savedNanos = new LongAdder();
+
+    @Autowired
+    public VerifiedTokenCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.security.token-cache.enabled:true}") boolean enabled,
+            @Value("${app.security.token-cache.max-size:100000}") long maxSize,
+            @Value("${app.security.token-cache.ttl:5m}") Duration ttl
+    ) {
+        this(meterRegistry, enabled, maxSize, ttl, Ticker.systemTicker(), Clock.systemUTC());
+    }
+
+    /**
+     * {@code ticker} mede a idade das entradas e das alterações de usuário;
+     * {@code clock} é comparado com a expiração dos tokens.
+     */
+    VerifiedTokenCache(MeterRegistry meterRegistry, boolean enabled, long maxSize, Duration ttl, Ticker ticker, Clock clock) {
+        this.enabled = enabled;
+        this.ticker = ticker;
+        // Antes de qualquer entrada: nenhuma alteração descartada ainda
+        this.evictedChangesUpTo = new AtomicLong(ticker.read() - 1);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(ttl, clock))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        // Limitado como o cache de tokens: uma importação em massa ou uma onda de
+        // rehash publica uma alteração por usuário
+        this.subjectChanges = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .<String, Long>evictionListener((subject, changedAt, cause) -> {
+                    if (cause == RemovalCause.SIZE && changedAt != null) {
+                        evictedChangesUpTo.accumulateAndGet(changedAt, VerifiedTokenCache::later);
+                    }
+                })
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verifiedTokens");
+        FunctionCounter.builder("auth.token-cache.saved", savedNanos, adder -> adder.sum() / 1e9)
+                .description("Tempo de verificação evitado por acertos no cache de tokens")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devolve a autenticação do token, verificando-o com {@code authenticate} só
+     * na primeira vez. Um resultado nulo (token que não autentica) não é guardado;
+     * exceções de verificação são propagadas.
+     */
+    public CachedAuthentication get(String jwt, Function<String, CachedAuthentication> authenticate) {
+        if (!enabled) {
+            return authenticate.apply(jwt);
+        }
+
+        TokenDigest key = TokenDigest.of(jwt);
+        CachedAuthentication cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long cachedAt = ticker.read();
+        long start = System.nanoTime();
+        CachedAuthentication authentication = authenticate.apply(jwt);
+        if (authentication != null) {
+            cache.put(key, new Entry(authentication, cachedAt, System.nanoTime() - start));
+        }
+        return authentication;
+    }
+
+    /**
+     * Autenticação já guardada para o token, sem verificá-lo numa falta; {@code null}
+     * se não houver.
+     */
+    public CachedAuthentication getIfPresent(String jwt) {
+        return enabled ? lookup(TokenDigest.of(jwt)) : null;
+    }
+
+    private CachedAuthentication lookup(TokenDigest key) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null || isStale(entry)) {
+            return null;
+        }
+        savedNanos.add(entry.verifyNanos());
+        return entry.authentication();
+    }
+
+    public void invalidateSubject(String subject) {
+        if (enabled) {
+            subjectChanges.put(subject, ticker.read());
+        }
+    }
+
+    private boolean isStale(Entry entry) {
+        if (evictedChangesUpTo.get() - entry.cachedAt() >= 0) {
+            return true;
+        }
+        Long changedAt = subjectChanges.getIfPresent(entry.authentication().token().subject());
+        return changedAt != null && changedAt - entry.cachedAt() >= 0;
+    }
+
+    private static long later(long a, long b) {
+        return a - b >= 0 ? a : b;
+    }
+
+    public record CachedAuthentication(
+            VerifiedToken token,
+            Object principal,
+            Collection<? extends GrantedAuthority> authorities
+    ) {
+    }
+
+    private record Entry(CachedAuthentication authentication, long cachedAt, long verifyNanos) {
+    }
+
+    private record TokenDigest(long a, long b, long c, long d) {
+
+        static TokenDigest of(String jwt) {
+            try {
+                ByteBuffer digest = ByteBuffer.wrap(
+                        MessageDigest.getInstance("SHA-256").digest(jwt.getBytes(StandardCharsets.US_ASCII)));
+                return new TokenDigest(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 indisponível", e);
+            }
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<TokenDigest, Entry> {
+
+        private final long ttlNanos;
+        private final Clock clock;
+
+        TokenExpiry(Duration ttl, Clock clock) {
+            this.ttlNanos = ttl.toNanos();
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, Entry entry, long currentTime) {
+            Instant expiresAt = entry.authentication().token().expiresAt();
+            if (expiresAt == null) {
+                return ttlNanos;
+            }
+            long untilExpiry = Duration.between(clock.instant(), expiresAt).toNanos();
+            return Math.max(0, Math.min(ttlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package edu.unifor.br.distrischool.authservice.serialization;
+
+import edu.unifor.br.distrischool.authservice.dto.UserEvent;
+import edu.unifor.br.distrischool.authservice.entity.User;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lê {@link UserEvent} no formato do {@link UserEventAvroSerializer}, resolvendo
+ * a versão de schema do escritor contra a versão mais recente do leitor.
+ */
+public class UserEventAvroDeserializer implements Deserializer<UserEvent> {
+
+    private static final int HEADER_LENGTH = 5;
+
+    private final UserEventSchemaStore schemaStore = UserEventSchemaStore.getInstance();
+    private final Map<Integer, GenericDatumReader<GenericRecord>> readers = new ConcurrentHashMap<>();
+    // A mesma instância é compartilhada pelos consumers concorrentes da factory
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+
+    @Override
+    public UserEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length < HEADER_LENGTH || data[0] != UserEventAvroSerializer.MAGIC_BYTE) {
+            throw new SerializationException("Payload não está no formato Avro de UserEvent");
+        }
+
+        int version = ByteBuffer.wrap(data, 1, 4).getInt();
+
+        GenericRecord record;
+        try {
+            // Versão desconhecida também sai como SerializationException
+            GenericDatumReader<GenericRecord> reader = readers.computeIfAbsent(version, this::readerFor);
+            BinaryDecoder decoder = DecoderFactory.get()
+                    .binaryDecoder(data, HEADER_LENGTH, data.length - HEADER_LENGTH, decoders.get());
+            decoders.set(decoder);
+            record = reader.read(null, decoder);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Erro ao desserializar UserEvent Avro v" + version, e);
+        }
+
+        Object role = record.get("role");
+        return UserEvent.builder()
+                .eventType(asString(record.get("eventType")))
+                .userId((Long) record.get("userId"))
+                .email(asString(record.get("email")))
+                .name(asString(record.get("name")))
+                .role(role != null ? User.Role.valueOf(role.toString()) : null)
+                .password(asString(record.get("password")))
+                .timestamp(asString(record.get("timestamp")))
+                .build();
+    }
+
+    private GenericDatumReader<GenericRecord> readerFor(int writerVersion) {
+        Schema writerSchema = schemaStore.get(writerVersion);
+        return new GenericDatumReader<>(writerSchema, schemaStore.latest());
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,71 @@
+package edu.unifor.br.distrischool.authservice.serialization;
+
+import edu.unifor.br.distrischool.authservice.dto.UserEvent;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Serializa {@link UserEvent} em Avro binário. Formato na rede:
+ * {@code [MAGIC_BYTE][versão do schema: int32][payload Avro]}.
+ */
+public class UserEventAvroSerializer implements Serializer<UserEvent> {
+
+    public static final byte MAGIC_BYTE = 0x1;
+
+    private final UserEventSchemaStore schemaStore = UserEventSchemaStore.getInstance();
+    private final Schema schema = schemaStore.latest();
+    private final GenericDatumWriter<GenericRecord> writer = new GenericDatumWriter<>(schema);
+
+    // O producer serializa na thread que chama send(); reaproveita buffer e encoder por thread
+    private final ThreadLocal<ByteArrayOutputStream> buffers =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(256));
+    private final ThreadLocal<BinaryEncoder> encoders = new ThreadLocal<>();
+
+    @Override
+    public byte[] serialize(String topic, UserEvent event) {
+        if (event == null) {
+            return null;
+        }
+        // Único campo obrigatório no schema; sem isso o writer lançaria NullPointerException
+        if (event.getEventType() == null) {
+            throw new SerializationException("UserEvent sem eventType não pode ser serializado em Avro");
+        }
+
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("eventType", event.getEventType());
+        record.put("userId", event.getUserId());
+        record.put("email", event.getEmail());
+        record.put("name", event.getName());
+        record.put("role", event.getRole() != null ? event.getRole().name() : null);
+        record.put("password", event.getPassword());
+        record.put("timestamp", event.getTimestamp());
+
+        ByteArrayOutputStream out = buffers.get();
+        out.reset();
+        int version = schemaStore.latestVersion();
+        out.write(MAGIC_BYTE);
+        out.write(version >>> 24);
+        out.write(version >>> 16);
+        out.write(version >>> 8);
+        out.write(version);
+
+        try {
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, encoders.get());
+            encoders.set(encoder);
+            writer.write(record, encoder);
+            encoder.flush();
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Erro ao serializar UserEvent em Avro", e);
+        }
+        return out.toByteArray();
+    }
+}
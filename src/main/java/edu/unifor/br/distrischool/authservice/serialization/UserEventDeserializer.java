@@ -0,0 +1,34 @@
+package edu.unifor.br.distrischool.authservice.serialization;
+
+import edu.unifor.br.distrischool.authservice.dto.UserEvent;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * Aceita os dois formatos na mesma partição durante a migração: mensagens que
+ * começam com o magic byte Avro vão para o {@link UserEventAvroDeserializer},
+ * o restante é tratado como JSON.
+ */
+public class UserEventDeserializer implements Deserializer<UserEvent> {
+
+    private final UserEventAvroDeserializer avroDeserializer = new UserEventAvroDeserializer();
+    private final JsonDeserializer<UserEvent> jsonDeserializer;
+
+    public UserEventDeserializer() {
+        this.jsonDeserializer = new JsonDeserializer<>(UserEvent.class, false);
+        this.jsonDeserializer.addTrustedPackages(UserEvent.class.getPackageName());
+    }
+
+    @Override
+    public UserEvent deserialize(String topic, byte[] data) {
+        if (data != null && data.length > 0 && data[0] == UserEventAvroSerializer.MAGIC_BYTE) {
+            return avroDeserializer.deserialize(topic, data);
+        }
+        return jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
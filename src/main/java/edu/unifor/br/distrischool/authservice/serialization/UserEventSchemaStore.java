@@ -0,0 +1,71 @@
+package edu.unifor.br.distrischool.authservice.serialization;
+
+import org.apache.avro.Schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Registro local de schemas Avro do {@code UserEvent}, lido de
+ * {@code classpath:avro/user-event/v<N>.avsc}. Substitui um schema registry:
+ * cada mensagem carrega a versão do schema com que foi escrita, e o leitor
+ * resolve essa versão contra a mais recente. Para evoluir o formato, adicione
+ * um novo {@code v<N+1>.avsc} compatível (campos novos com default).
+ */
+public final class UserEventSchemaStore {
+
+    private static final String LOCATION = "avro/user-event/v%d.avsc";
+
+    private static final UserEventSchemaStore INSTANCE = load();
+
+    private final Map<Integer, Schema> schemas;
+    private final int latestVersion;
+
+    private UserEventSchemaStore(Map<Integer, Schema> schemas) {
+        this.schemas = schemas;
+        this.latestVersion = ((TreeMap<Integer, Schema>) schemas).lastKey();
+    }
+
+    public static UserEventSchemaStore getInstance() {
+        return INSTANCE;
+    }
+
+    public int latestVersion() {
+        return latestVersion;
+    }
+
+    public Schema latest() {
+        return schemas.get(latestVersion);
+    }
+
+    public Schema get(int version) {
+        Schema schema = schemas.get(version);
+        if (schema == null) {
+            throw new IllegalArgumentException("Versão de schema UserEvent desconhecida: " + version);
+        }
+        return schema;
+    }
+
+    private static UserEventSchemaStore load() {
+        Map<Integer, Schema> schemas = new TreeMap<>();
+        ClassLoader classLoader = UserEventSchemaStore.class.getClassLoader();
+
+        for (int version = 1; ; version++) {
+            try (InputStream in = classLoader.getResourceAsStream(LOCATION.formatted(version))) {
+                if (in == null) {
+                    break;
+                }
+                schemas.put(version, new Schema.Parser().parse(in));
+            } catch (IOException e) {
+                throw new IllegalStateException("Erro ao ler schema UserEvent v" + version, e);
+            }
+        }
+
+        if (schemas.isEmpty()) {
+            throw new IllegalStateException("Nenhum schema UserEvent encontrado em " + LOCATION);
+        }
+        return new UserEventSchemaStore(schemas);
+    }
+}
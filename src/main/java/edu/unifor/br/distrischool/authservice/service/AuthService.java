@@ -1,10 +1,21 @@
 package edu.unifor.br.distrischool.authservice.service;
 
 import edu.unifor.br.distrischool.authservice.dto.*;
+import edu.unifor.br.distrischool.authservice.entity.TokenPurpose;
 import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.event.UserChangedEvent;
+import edu.unifor.br.distrischool.authservice.exception.InvalidTokenException;
 import edu.unifor.br.distrischool.authservice.repository.UserRepository;
+import edu.unifor.br.distrischool.authservice.repository.projection.UserProfileView;
+import edu.unifor.br.distrischool.authservice.security.AccessTokenDenyList;
+import edu.unifor.br.distrischool.authservice.security.AuthUser;
+import edu.unifor.br.distrischool.authservice.security.AuthRateLimiter;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -15,7 +26,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -28,115 +41,135 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final KafkaEventService kafkaEventService;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final AuthRateLimiter rateLimiter;
+    private final RefreshTokenService refreshTokenService;
+    private final AccessTokenDenyList denyList;
+    private final UserTokenService userTokenService;
+    private final LastLoginRecorder lastLoginRecorder;
+
+    private final Map<OperationTimerKey, Timer> operationTimers = new ConcurrentHashMap<>();
 
     @Transactional
     public UserAuthResponse login(LoginRequest request) {
-        log.info("Tentativa de login para o email: {}", request.getEmail());
-
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
-
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        return timed("login", () -> {
+            log.info("Tentativa de login para o email: {}", request.getEmail());
+
+            // O principal já é o usuário carregado (ou vindo do cache) pelo
+            // DaoAuthenticationProvider; não há segunda consulta por email
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getEmail(),
+                            request.getPassword()
+                    )
+            );
+            rateLimiter.loginSucceeded(request.getEmail());
+
+            if (!(authentication.getPrincipal() instanceof AuthUser user)) {
+                throw new IllegalStateException("Principal inesperado: " + authentication.getPrincipal());
+            }
 
-        if (!user.isEmailVerified()) {
-            throw new RuntimeException("Email não verificado. Por favor, verifique seu email.");
-        }
+            if (!user.isEmailVerified()) {
+                throw new RuntimeException("Email não verificado. Por favor, verifique seu email.");
+            }
 
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
+            lastLoginRecorder.record(user.getId(), LocalDateTime.now());
 
-        String jwtToken = jwtService.generateToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
+            String jwtToken = jwtService.generateToken(user);
+            String refreshToken = refreshTokenService.issue(user);
 
-        kafkaEventService.publishUserEvent("user.logged", user);
+            kafkaEventService.publishUserEvent("user.logged", user);
 
-        log.info("Login bem-sucedido para: {}", user.getEmail());
+            log.info("Login bem-sucedido para: {}", user.getEmail());
 
-        return UserAuthResponse.builder()
-                .token(jwtToken)
-                .refreshToken(refreshToken)
-                .userId(user.getId())
-                .type("Bearer")
-                .email(user.getEmail())
-                .emailVerified(user.isEmailVerified())
-                .name(user.getName())
-                .role(user.getRole())
-                .expiresIn(jwtService.getExpirationTime())
-                .build();
+            return UserAuthResponse.builder()
+                    .token(jwtToken)
+                    .refreshToken(refreshToken)
+                    .userId(user.getId())
+                    .type("Bearer")
+                    .email(user.getEmail())
+                    .emailVerified(user.isEmailVerified())
+                    .name(user.getName())
+                    .role(user.getRole())
+                    .expiresIn(jwtService.getExpirationTime())
+                    .build();
+        });
     }
 
     @Transactional
     public UserAuthResponse register(RegisterRequest request) {
-        log.info("Tentativa de registro para o email: {}", request.getEmail());
-
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email já cadastrado");
-        }
+        return timed("register", () -> {
+            log.info("Tentativa de registro para o email: {}", request.getEmail());
 
-        String verificationToken = UUID.randomUUID().toString();
+            if (userRepository.existsByEmail(request.getEmail())) {
+                throw new RuntimeException("Email já cadastrado");
+            }
 
-        User user = User.builder()
-                .name(request.getName())
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .role(request.getRole())
-                .verificationToken(verificationToken)
-                .emailVerified(false)
-                .enabled(true)
-                .build();
+            User user = User.builder()
+                    .name(request.getName())
+                    .email(request.getEmail())
+                    .password(passwordEncoder.encode(request.getPassword()))
+                    .role(request.getRole())
+                    .emailVerified(false)
+                    .enabled(true)
+                    .build();
 
-        userRepository.save(user);
+            // flush antes do token, que referencia o usuário e é gravado via JDBC
+            userRepository.saveAndFlush(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
 
-        String jwtToken = jwtService.generateToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
+            String verificationToken = userTokenService.issue(user, TokenPurpose.EMAIL_VERIFICATION);
+            String jwtToken = jwtService.generateToken(user);
+            String refreshToken = refreshTokenService.issue(user);
 
-        emailService.sendVerificationEmail(user.getEmail(), verificationToken);
+            emailService.sendVerificationEmail(user.getEmail(), verificationToken);
 
-        kafkaEventService.publishUserEvent("user.registered", user);
+            kafkaEventService.publishUserEvent("user.registered", user);
 
-        log.info("Usuário registrado com sucesso: {}", user.getEmail());
+            log.info("Usuário registrado com sucesso: {}", user.getEmail());
 
-        return UserAuthResponse.builder()
-                .token(jwtToken)
-                .refreshToken(refreshToken)
-                .userId(user.getId())
-                .type("Bearer")
-                .email(user.getEmail())
-                .emailVerified(user.isEmailVerified())
-                .name(user.getName())
-                .role(user.getRole())
-                .expiresIn(jwtService.getExpirationTime())
-                .build();
+            return UserAuthResponse.builder()
+                    .token(jwtToken)
+                    .refreshToken(refreshToken)
+                    .userId(user.getId())
+                    .type("Bearer")
+                    .email(user.getEmail())
+                    .emailVerified(user.isEmailVerified())
+                    .name(user.getName())
+                    .role(user.getRole())
+                    .expiresIn(jwtService.getExpirationTime())
+                    .build();
+        });
     }
 
     @Transactional
     public MessageResponse verifyEmail(String token) {
-        log.info("Verificando email com token");
+        return timed("verifyEmail", () -> {
+            log.info("Verificando email com token");
 
-        User user = userRepository.findByVerificationToken(token)
-                .orElseThrow(() -> new RuntimeException("Token inválido"));
+            User user = userTokenService.consume(token, TokenPurpose.EMAIL_VERIFICATION)
+                    .flatMap(userRepository::findById)
+                    .orElseThrow(() -> new RuntimeException("Token inválido"));
 
-        user.setEmailVerified(true);
-        user.setVerificationToken(null);
-        userRepository.save(user);
+            user.setEmailVerified(true);
+            userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
 
-        kafkaEventService.publishUserEvent("user.email.verified", user);
+            kafkaEventService.publishUserEvent("user.email.verified", user);
 
-        log.info("Email verificado com sucesso para: {}", user.getEmail());
+            log.info("Email verificado com sucesso para: {}", user.getEmail());
 
-        return MessageResponse.builder()
-                .success(true)
-                .message("Email verificado com sucesso!")
-                .build();
+            return MessageResponse.builder()
+                    .success(true)
+                    .message("Email verificado com sucesso!")
+                    .build();
+        });
     }
 
-        @Transactional
-        public MessageResponse resendEmailVerification() {
+    @Transactional
+    public MessageResponse resendEmailVerification() {
+        return timed("resendEmailVerification", () -> {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             if (authentication == null || authentication.getPrincipal() == null) {
                 throw new RuntimeException("Usuário não autenticado");
@@ -159,9 +192,7 @@ public class AuthService {
                 throw new RuntimeException("Email já verificado");
             }
 
-            String verificationToken = UUID.randomUUID().toString();
-            user.setVerificationToken(verificationToken);
-            userRepository.save(user);
+            String verificationToken = userTokenService.issue(user, TokenPurpose.EMAIL_VERIFICATION);
 
             emailService.sendVerificationEmail(user.getEmail(), verificationToken);
 
@@ -171,105 +202,196 @@ public class AuthService {
                     .success(true)
                     .message("Email de verificação reenviado com sucesso!")
                     .build();
-        }
+        });
+    }
 
     @Transactional
     public MessageResponse requestPasswordReset(PasswordResetRequest request) {
-        log.info("Solicitação de reset de senha para: {}", request.getEmail());
+        return timed("requestPasswordReset", () -> {
+            log.info("Solicitação de reset de senha para: {}", request.getEmail());
 
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+            User user = userRepository.findByEmail(request.getEmail())
+                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
-        String resetToken = UUID.randomUUID().toString();
-        user.setResetPasswordToken(resetToken);
-        user.setResetPasswordExpires(LocalDateTime.now().plusHours(1));
-        userRepository.save(user);
+            String resetToken = userTokenService.issue(user, TokenPurpose.PASSWORD_RESET);
 
-        emailService.sendPasswordResetEmail(user.getEmail(), resetToken);
+            emailService.sendPasswordResetEmail(user.getEmail(), resetToken);
 
-        log.info("Email de reset enviado para: {}", user.getEmail());
+            log.info("Email de reset enviado para: {}", user.getEmail());
 
-        return MessageResponse.builder()
-                .success(true)
-                .message("Email de recuperação enviado com sucesso!")
-                .build();
+            return MessageResponse.builder()
+                    .success(true)
+                    .message("Email de recuperação enviado com sucesso!")
+                    .build();
+        });
     }
 
     @Transactional
     public MessageResponse resetPassword(PasswordResetConfirmRequest request) {
-        log.info("Confirmando reset de senha");
+        return timed("resetPassword", () -> {
+            log.info("Confirmando reset de senha");
 
-        User user = userRepository.findByResetPasswordTokenAndResetPasswordExpiresAfter(
-                request.getToken(),
-                LocalDateTime.now()
-        ).orElseThrow(() -> new RuntimeException("Token inválido ou expirado"));
+            User user = userTokenService.consume(request.getToken(), TokenPurpose.PASSWORD_RESET)
+                    .flatMap(userRepository::findById)
+                    .orElseThrow(() -> new RuntimeException("Token inválido ou expirado"));
+
+            user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+            userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
 
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        user.setResetPasswordToken(null);
-        user.setResetPasswordExpires(null);
-        userRepository.save(user);
+            refreshTokenService.revokeAll(user);
+            denyList.revokeSubject(user.getEmail());
 
-        kafkaEventService.publishUserEvent("user.password.reset", user);
+            kafkaEventService.publishUserEvent("user.password.reset", user);
 
-        log.info("Senha resetada com sucesso para: {}", user.getEmail());
+            log.info("Senha resetada com sucesso para: {}", user.getEmail());
 
-        return MessageResponse.builder()
-                .success(true)
-                .message("Senha alterada com sucesso!")
-                .build();
+            return MessageResponse.builder()
+                    .success(true)
+                    .message("Senha alterada com sucesso!")
+                    .build();
+        });
     }
 
     public UserAuthResponse refreshToken(RefreshTokenRequest request) {
-        log.info("Renovando token");
+        return timed("refreshToken", () -> {
+            log.info("Renovando token");
 
-        String userEmail = jwtService.extractUsername(request.getRefreshToken());
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+            VerifiedToken token = verifyRefreshToken(request.getRefreshToken());
+            User user = userRepository.findByEmail(token.subject())
+                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
-        if (!jwtService.isTokenValid(request.getRefreshToken(), user)) {
-            throw new RuntimeException("Refresh token inválido");
-        }
+            if (!token.isIssuedTo(user) || !user.isEnabled()) {
+                throw new InvalidTokenException("Refresh token inválido");
+            }
 
-        String newAccessToken = jwtService.generateToken(user);
-
-        return UserAuthResponse.builder()
-                .token(newAccessToken)
-                .refreshToken(request.getRefreshToken())
-                .userId(user.getId())
-                .email(user.getEmail())
-                .name(user.getName())
-                .role(user.getRole())
-                .expiresIn(jwtService.getExpirationTime())
-                .build();
+            String newRefreshToken = refreshTokenService.rotate(token, user);
+            String newAccessToken = jwtService.generateToken(user);
+
+            return UserAuthResponse.builder()
+                    .token(newAccessToken)
+                    .refreshToken(newRefreshToken)
+                    .userId(user.getId())
+                    .type("Bearer")
+                    .email(user.getEmail())
+                    .name(user.getName())
+                    .role(user.getRole())
+                    .expiresIn(jwtService.getExpirationTime())
+                    .build();
+        });
     }
 
+    /**
+     * Encerra a sessão do refresh token e, se informado, revoga também o access
+     * token em uso, que de outro modo continuaria válido até expirar.
+     */
+    public MessageResponse logout(RefreshTokenRequest request, String accessToken) {
+        return timed("logout", () -> {
+            VerifiedToken token = verifyRefreshToken(request.getRefreshToken());
+            refreshTokenService.revoke(token);
+
+            if (accessToken != null) {
+                revokeAccessToken(accessToken, token.subject());
+            }
+
+            log.info("Logout de: {}", token.subject());
+
+            return MessageResponse.builder()
+                    .success(true)
+                    .message("Sessão encerrada com sucesso!")
+                    .build();
+        });
+    }
+
+    private void revokeAccessToken(String accessToken, String subject) {
+        try {
+            VerifiedToken token = jwtService.verify(accessToken);
+            if (!token.isRefreshToken() && subject.equals(token.subject())) {
+                denyList.revoke(token);
+            }
+        } catch (JwtException | IllegalArgumentException e) {
+            // Expirado ou inválido: não há o que revogar
+            log.debug("Access token ignorado no logout: {}", e.getMessage());
+        }
+    }
+
+    @Transactional(readOnly = true)
     public UserProfileResponse getCurrentUserProfile() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || authentication.getPrincipal() == null) {
-            throw new RuntimeException("Usuário não autenticado");
+        return timed("profile", () -> {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || authentication.getPrincipal() == null) {
+                throw new RuntimeException("Usuário não autenticado");
+            }
+
+            String email;
+            Object principal = authentication.getPrincipal();
+            if (principal instanceof UserDetails) {
+                email = ((UserDetails) principal).getUsername();
+            } else if (principal instanceof String) {
+                email = (String) principal;
+            } else {
+                throw new RuntimeException("Não foi possível determinar o usuário autenticado");
+            }
+
+            UserProfileView user = userRepository.findProfileByEmail(email)
+                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+
+            return UserProfileResponse.builder()
+                    .id(user.id())
+                    .name(user.name())
+                    .email(user.email())
+                    .role(user.role())
+                    .emailVerified(user.emailVerified())
+                    .createdAt(user.createdAt())
+                    .lastLogin(lastLoginRecorder.pending(user.id()).orElse(user.lastLogin()))
+                    .build();
+        });
+    }
+
+    private VerifiedToken verifyRefreshToken(String refreshToken) {
+        VerifiedToken token;
+        try {
+            token = jwtService.verify(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Refresh token inválido ou expirado");
+        }
+        if (!token.isRefreshToken()) {
+            throw new InvalidTokenException("Refresh token inválido");
         }
+        return token;
+    }
 
-        String email;
-        Object principal = authentication.getPrincipal();
-        if (principal instanceof UserDetails) {
-            email = ((UserDetails) principal).getUsername();
-        } else if (principal instanceof String) {
-            email = (String) principal;
-        } else {
-            throw new RuntimeException("Não foi possível determinar o usuário autenticado");
+    /**
+     * Registra a operação no timer {@code auth.operation}, com o resultado e a
+     * exceção (se houver) como tags. Mede o corpo do método; o commit da transação
+     * fica de fora e aparece em {@code http.server.requests}.
+     */
+    private <T> T timed(String operation, Supplier<T> action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(operationTimer(operation, exception));
         }
+    }
+
+    /**
+     * Um timer por combinação de tags, criado na primeira ocorrência; evita a
+     * busca no registry a cada chamada.
+     */
+    private Timer operationTimer(String operation, String exception) {
+        return operationTimers.computeIfAbsent(new OperationTimerKey(operation, exception), key -> Timer.builder("auth.operation")
+                .description("Duração das operações do AuthService")
+                .tag("operation", key.operation())
+                .tag("outcome", "none".equals(key.exception()) ? "success" : "failure")
+                .tag("exception", key.exception())
+                .register(meterRegistry));
+    }
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-
-        return UserProfileResponse.builder()
-                .id(user.getId())
-                .name(user.getName())
-                .email(user.getEmail())
-                .role(user.getRole())
-                .emailVerified(user.isEmailVerified())
-                .createdAt(user.getCreatedAt())
-                .lastLogin(user.getLastLogin())
-                .build();
+    private record OperationTimerKey(String operation, String exception) {
     }
 }
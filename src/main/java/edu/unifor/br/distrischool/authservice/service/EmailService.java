@@ -1,18 +1,21 @@
 package edu.unifor.br.distrischool.authservice.service;
 
+import edu.unifor.br.distrischool.authservice.entity.MailType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final MailDispatcher mailDispatcher;
 
     @Value("${spring.mail.username:noreply@distrischool.com}")
     private String fromEmail;
@@ -23,53 +26,57 @@ public class EmailService {
     @Value("${spring.mail.enabled:false}")
     private boolean mailEnabled;
 
-    @Value("${spring.mail.host:}")
-    private String mailHost;
+    // Os mesmos prazos do UserTokenService, para o texto do email não divergir da validade real
+    @Value("${app.security.tokens.email-verification.ttl:7d}")
+    private Duration emailVerificationTtl;
+
+    @Value("${app.security.tokens.password-reset.ttl:1h}")
+    private Duration passwordResetTtl;
 
     public void sendVerificationEmail(String toEmail, String token) {
+        sendVerificationEmail(toEmail, token, 0, LocalDateTime.now());
+    }
+
+    void sendVerificationEmail(String toEmail, String token, int replays, LocalDateTime requestedAt) {
         if (!mailEnabled) {
             log.warn("Email desabilitado. Link de verificação: {}/verify-email?token={}", frontendUrl, token);
             return;
         }
 
-        try {
-            String verificationLink = frontendUrl + "/verify-email?token=" + token;
+        String verificationLink = frontendUrl + "/verify-email?token=" + token;
 
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Verificação de Email - Sistema Escolar");
-            message.setText(buildVerificationEmailBody(verificationLink));
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(toEmail);
+        message.setSubject("Verificação de Email - Sistema Escolar");
+        message.setText(buildVerificationEmailBody(verificationLink));
 
-            mailSender.send(message);
-            
-            log.info("Email de verificação enviado para: {} via {}", toEmail, mailHost);
-        } catch (Exception e) {
-            log.error("Erro ao enviar email de verificação para {}: {}", toEmail, e.getMessage(), e);
-        }
+        mailDispatcher.dispatchAfterCommit(message, MailType.EMAIL_VERIFICATION, replays, requestedAt);
+
+        log.info("Email de verificação enfileirado para: {}", toEmail);
     }
 
     public void sendPasswordResetEmail(String toEmail, String token) {
+        sendPasswordResetEmail(toEmail, token, 0, LocalDateTime.now());
+    }
+
+    void sendPasswordResetEmail(String toEmail, String token, int replays, LocalDateTime requestedAt) {
         if (!mailEnabled) {
             log.warn("Email desabilitado. Link de reset: {}/reset-password?token={}", frontendUrl, token);
             return;
         }
 
-        try {
-            String resetLink = frontendUrl + "/password-reset/" + token;
+        String resetLink = frontendUrl + "/password-reset/" + token;
 
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Recuperação de Senha - Sistema Escolar");
-            message.setText(buildPasswordResetEmailBody(resetLink));
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(toEmail);
+        message.setSubject("Recuperação de Senha - Sistema Escolar");
+        message.setText(buildPasswordResetEmailBody(resetLink));
 
-            mailSender.send(message);
-            
-            log.info("Email de recuperação de senha enviado para: {} via {}", toEmail, mailHost);
-        } catch (Exception e) {
-            log.error("Erro ao enviar email de recuperação para {}: {}", toEmail, e.getMessage(), e);
-        }
+        mailDispatcher.dispatchAfterCommit(message, MailType.PASSWORD_RESET, replays, requestedAt);
+
+        log.info("Email de recuperação de senha enfileirado para: {}", toEmail);
     }
 
     public void sendTemporaryPasswordEmail(String toEmail, String tempPassword) {
@@ -78,18 +85,34 @@ public class EmailService {
             return;
         }
 
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Sua conta foi criada");
-            message.setText(buildTemporaryPasswordBody(tempPassword));
-
-            mailSender.send(message);
-            log.info("Temporary password email sent to: {} via {}", toEmail, mailHost);
-        } catch (Exception e) {
-            log.error("Erro ao enviar email com senha temporária para {}: {}", toEmail, e.getMessage(), e);
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(toEmail);
+        message.setSubject("Sua conta foi criada");
+        message.setText(buildTemporaryPasswordBody(tempPassword));
+
+        mailDispatcher.dispatchAfterCommit(message, MailType.ACCOUNT_CREATED);
+        log.info("Temporary password email queued for: {}", toEmail);
+    }
+
+    /**
+     * Reenvio de um email de conta criada que não chegou: a senha temporária não
+     * é guardada em lugar nenhum, então o usuário recebe um link para definir a senha.
+     */
+    void sendAccountCreatedEmail(String toEmail, String resetToken, int replays, LocalDateTime requestedAt) {
+        if (!mailEnabled) {
+            log.warn("Email desabilitado. Link para definir senha: {}/password-reset/{}", frontendUrl, resetToken);
+            return;
         }
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(toEmail);
+        message.setSubject("Sua conta foi criada");
+        message.setText(buildAccountCreatedBody(frontendUrl + "/password-reset/" + resetToken));
+
+        mailDispatcher.dispatchAfterCommit(message, MailType.ACCOUNT_CREATED, replays, requestedAt);
+        log.info("Email de conta criada reenfileirado para: {}", toEmail);
     }
 
     private String buildVerificationEmailBody(String verificationLink) {
@@ -97,7 +120,7 @@ public class EmailService {
                 "Obrigado por se registrar em nosso sistema escolar!\n\n" +
                 "Para ativar sua conta, clique no link abaixo:\n" +
                 verificationLink + "\n\n" +
-                "Este link expira em 24 horas.\n\n" +
+                "Este link expira em " + describe(emailVerificationTtl) + ".\n\n" +
                 "Se você não criou esta conta, ignore este email.\n\n" +
                 "Atenciosamente,\n" +
                 "Equipe Sistema Escolar";
@@ -108,12 +131,37 @@ public class EmailService {
                 "Recebemos uma solicitação para redefinir sua senha.\n\n" +
                 "Para criar uma nova senha, clique no link abaixo:\n" +
                 resetLink + "\n\n" +
-                "Este link expira em 1 hora.\n\n" +
+                "Este link expira em " + describe(passwordResetTtl) + ".\n\n" +
                 "Se você não solicitou esta alteração, ignore este email.\n\n" +
                 "Atenciosamente,\n" +
                 "Equipe Sistema Escolar";
     }
 
+    private String buildAccountCreatedBody(String setPasswordLink) {
+        return "Olá,\n\n" +
+                "Sua conta de estudante foi criada. Para definir sua senha, clique no link abaixo:\n" +
+                setPasswordLink + "\n\n" +
+                "Este link expira em " + describe(passwordResetTtl) + ".\n\n" +
+                "Atenciosamente,\n" +
+                "Equipe Sistema Escolar";
+    }
+
+    /** Prazo por extenso na maior unidade exata: "7 dias", "1 hora", "90 minutos". */
+    static String describe(Duration duration) {
+        if (duration.toDays() > 0 && duration.equals(Duration.ofDays(duration.toDays()))) {
+            return plural(duration.toDays(), "dia", "dias");
+        }
+        if (duration.toHours() > 0 && duration.equals(Duration.ofHours(duration.toHours()))) {
+            return plural(duration.toHours(), "hora", "horas");
+        }
+        long minutes = Math.max(1, (duration.toSeconds() + 59) / 60);
+        return plural(minutes, "minuto", "minutos");
+    }
+
+    private static String plural(long amount, String singular, String plural) {
+        return amount + " " + (amount == 1 ? singular : plural);
+    }
+
     private String buildTemporaryPasswordBody(String tempPassword) {
         return "Olá,\n\n" +
                 "Sua conta de estudante foi criada. A senha temporária é:\n\n" +
@@ -0,0 +1,98 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import edu.unifor.br.distrischool.authservice.repository.RefreshTokenFamilyRepository;
+import edu.unifor.br.distrischool.authservice.repository.RefreshTokenRepository;
+import edu.unifor.br.distrischool.authservice.repository.UserTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Remove tokens expirados em lotes de {@code app.security.token-sweeper.batch-size},
+ * cada um na sua própria transação, para que a limpeza de um acúmulo grande não
+ * segure locks nem gere uma transação longa. Um ciclo apaga no máximo
+ * {@code max-batches} lotes por tabela; o restante fica para o próximo.
+ */
+@Component
+@Slf4j
+public class ExpiredTokenSweeper {
+
+    private final UserTokenRepository userTokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+    private final Counter userTokensSwept;
+    private final Counter refreshTokensSwept;
+    private final Counter familiesSwept;
+
+    @Value("${app.security.token-sweeper.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.security.token-sweeper.max-batches:100}")
+    private int maxBatches;
+
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpiration;
+
+    public ExpiredTokenSweeper(
+            UserTokenRepository userTokenRepository,
+            RefreshTokenRepository refreshTokenRepository,
+            RefreshTokenFamilyRepository refreshTokenFamilyRepository,
+            MeterRegistry meterRegistry
+    ) {
+        this.userTokenRepository = userTokenRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenFamilyRepository = refreshTokenFamilyRepository;
+        this.userTokensSwept = sweptCounter(meterRegistry, "user_tokens");
+        this.refreshTokensSwept = sweptCounter(meterRegistry, "refresh_tokens");
+        this.familiesSwept = sweptCounter(meterRegistry, "refresh_token_families");
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.security.token-sweeper.interval:5m}",
+            fixedDelayString = "${app.security.token-sweeper.interval:5m}"
+    )
+    public void sweep() {
+        Instant now = Instant.now();
+        LocalDateTime localNow = LocalDateTime.now();
+
+        sweep("user_tokens", userTokensSwept, () -> userTokenRepository.deleteExpired(now, batchSize));
+        sweep("refresh_tokens", refreshTokensSwept, () -> refreshTokenRepository.deleteExpired(localNow, batchSize));
+        // Depois dos tokens, para que as famílias esvaziadas neste ciclo já saiam
+        LocalDateTime familiesCreatedBefore = localNow.minusNanos(refreshExpiration * 1_000_000);
+        sweep("refresh_token_families", familiesSwept,
+                () -> refreshTokenFamilyRepository.deleteEmpty(familiesCreatedBefore, batchSize));
+    }
+
+    private void sweep(String table, Counter swept, IntSupplier deleteBatch) {
+        int total = 0;
+        try {
+            int deleted;
+            int batches = 0;
+            do {
+                deleted = deleteBatch.getAsInt();
+                total += deleted;
+            } while (deleted == batchSize && ++batches < maxBatches);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao remover tokens expirados de {}: {}", table, e.getMessage());
+        }
+
+        if (total > 0) {
+            swept.increment(total);
+            log.debug("{} tokens expirados removidos de {}", total, table);
+        }
+    }
+
+    private static Counter sweptCounter(MeterRegistry meterRegistry, String table) {
+        return Counter.builder("auth.tokens.swept")
+                .description("Linhas de tokens expirados removidas")
+                .tag("table", table)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JWK Set publicado em {@code /.well-known/jwks.json}, serializado uma única vez
+ * quando as chaves são carregadas. O ETag é derivado do conteúdo, então muda
+ * exatamente quando o conjunto de chaves muda.
+ */
+public record JwkSetDocument(String json, String etag) {
+
+    static final JwkSetDocument EMPTY = of(List.of());
+
+    static JwkSetDocument of(Collection<String> jwks) {
+        String json = "{\"keys\":[" + String.join(",", jwks) + "]}";
+        return new JwkSetDocument(json, etag(json));
+    }
+
+    private static String etag(String json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * Leitura das chaves assimétricas de assinatura a partir de arquivos PEM: PKCS#8
+ * ({@code BEGIN PRIVATE KEY}) para a chave privada e X.509
+ * ({@code BEGIN PUBLIC KEY}) para as públicas. As localizações aceitam os
+ * prefixos do Spring ({@code file:}, {@code classpath:}).
+ */
+final class JwtKeys {
+
+    private static final ResourceLoader RESOURCE_LOADER = new DefaultResourceLoader();
+
+    private JwtKeys() {
+    }
+
+    static SignatureAlgorithm algorithm(String name) {
+        return switch (name) {
+            case "RS256" -> Jwts.SIG.RS256;
+            case "ES256" -> Jwts.SIG.ES256;
+            case "EdDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalStateException("jwt.algorithm não suportado: " + name);
+        };
+    }
+
+    static PrivateKey readPrivateKey(String location, SignatureAlgorithm algorithm) {
+        try {
+            return keyFactory(algorithm).generatePrivate(new PKCS8EncodedKeySpec(readPem(location)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Chave privada JWT inválida em " + location, e);
+        }
+    }
+
+    static PublicKey readPublicKey(String location, SignatureAlgorithm algorithm) {
+        try {
+            return keyFactory(algorithm).generatePublic(new X509EncodedKeySpec(readPem(location)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Chave pública JWT inválida em " + location, e);
+        }
+    }
+
+    /**
+     * JWK público da chave, com o {@code kid} derivado do thumbprint (RFC 7638),
+     * de forma que instâncias com a mesma chave publiquem o mesmo {@code kid}.
+     */
+    static PublicJwk<?> toJwk(PublicKey key, SignatureAlgorithm algorithm) {
+        return Jwks.builder()
+                .key(key)
+                .algorithm(algorithm.getId())
+                .publicKeyUse("sig")
+                .idFromThumbprint()
+                .build();
+    }
+
+    private static KeyFactory keyFactory(SignatureAlgorithm algorithm) throws GeneralSecurityException {
+        return KeyFactory.getInstance(switch (algorithm.getId()) {
+            case "RS256" -> "RSA";
+            case "ES256" -> "EC";
+            default -> "Ed25519";
+        });
+    }
+
+    private static byte[] readPem(String location) {
+        Resource resource = RESOURCE_LOADER.getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            String pem = new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+            String base64 = pem.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+            return Base64.getDecoder().decode(base64);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Não foi possível ler a chave JWT em " + location, e);
+        }
+    }
+}
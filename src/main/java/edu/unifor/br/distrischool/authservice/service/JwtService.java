@@ -1,38 +1,222 @@
 package edu.unifor.br.distrischool.authservice.service;
 
 import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.security.AuthUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwks;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
+@Slf4j
 public class JwtService {
 
-    @Value("${jwt.secret}")
+    public static final String TOKEN_TYPE_CLAIM = "typ";
+    public static final String TOKEN_TYPE_ACCESS = "access";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+    public static final String FAMILY_CLAIM = "fam";
+
+    private static final Set<String> HMAC_ALGORITHMS = Set.of("HS256", "HS384", "HS512");
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * {@code HMAC} assina com {@code jwt.secret}; {@code RS256}, {@code ES256} e
+     * {@code EdDSA} assinam com {@code jwt.keys.private-key} e publicam as chaves
+     * públicas em {@code /.well-known/jwks.json}.
+     */
+    @Value("${jwt.algorithm:HMAC}")
+    private String algorithm;
+
+    @Value("${jwt.secret:}")
     private String secret;
 
+    /**
+     * Arquivo com o segredo HMAC (por exemplo, um secret montado no container).
+     * Quando configurado, prevalece sobre {@code jwt.secret} e é relido
+     * periodicamente; se o conteúdo mudar, o segredo é rotacionado sem reiniciar.
+     */
+    @Value("${jwt.secret-file.path:}")
+    private String secretFile;
+
+    @Value("${jwt.keys.private-key:}")
+    private String privateKeyLocation;
+
+    @Value("${jwt.keys.public-key:}")
+    private String publicKeyLocation;
+
+    /** Só para desenvolvimento: sem chave privada, gera um par efêmero em vez de falhar. */
+    @Value("${jwt.keys.allow-ephemeral:false}")
+    private boolean allowEphemeralKeys;
+
+    /**
+     * Chaves públicas só de verificação, aceitas pelo {@code kid} e publicadas no
+     * JWKS. Só {@code jwt.keys.private-key} assina; a rotação publica a próxima
+     * chave aqui antes da troca e mantém a anterior até seus tokens expirarem.
+     */
+    @Value("${jwt.keys.retired-public-keys:}")
+    private String[] retiredPublicKeyLocations;
+
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
     @Value("${jwt.refresh-expiration}")
     private long refreshExpiration;
 
+    /**
+     * Chave e parser derivados do segredo ou das chaves atuais. Ambos são imutáveis e
+     * thread-safe, então são construídos uma única vez e trocados atomicamente na rotação.
+     */
+    private volatile SigningState signingState;
+
+    /**
+     * Estado anterior à última rotação, aceito apenas na verificação para que tokens
+     * já emitidos continuem válidos até expirarem.
+     */
+    private volatile SigningState previousSigningState;
+
+    private volatile JwkSetDocument jwkSet = JwkSetDocument.EMPTY;
+
+    private volatile Set<String> acceptedAlgorithms = HMAC_ALGORITHMS;
+
+    private Timer accessSignTimer;
+    private Timer refreshSignTimer;
+    private Timer verifySuccessTimer;
+    private Timer verifyFailureTimer;
+
+    @PostConstruct
+    void init() {
+        if (isHmac() && StringUtils.hasText(secretFile)) {
+            this.secret = readSecretFile();
+        }
+        this.signingState = isHmac() ? SigningState.of(secret) : loadAsymmetricState();
+        this.accessSignTimer = signTimer("access");
+        this.refreshSignTimer = signTimer("refresh");
+        this.verifySuccessTimer = verifyTimer("success");
+        this.verifyFailureTimer = verifyTimer("failure");
+    }
+
+    /**
+     * Troca o segredo de assinatura em tempo de execução. Novos tokens passam a ser
+     * assinados com o novo segredo; tokens assinados com o segredo anterior continuam
+     * sendo aceitos até a próxima rotação.
+     */
+    public synchronized void rotateSecret(String newSecret) {
+        if (!isHmac()) {
+            throw new IllegalStateException("Rotação de segredo só se aplica a jwt.algorithm=HMAC");
+        }
+        SigningState next = SigningState.of(newSecret);
+        this.previousSigningState = this.signingState;
+        this.signingState = next;
+        this.secret = newSecret;
+        log.info("Segredo JWT rotacionado");
+    }
+
+    /**
+     * Rotaciona o segredo quando o conteúdo de {@code jwt.secret-file.path} muda.
+     * Cada instância relê o arquivo no seu próprio ciclo, então, logo após a troca,
+     * um token novo pode ser recusado por uma instância que ainda não o releu.
+     */
+    @Scheduled(
+            initialDelayString = "${jwt.secret-file.check-interval:30s}",
+            fixedDelayString = "${jwt.secret-file.check-interval:30s}"
+    )
+    public synchronized void reloadSecretFile() {
+        if (!isHmac() || !StringUtils.hasText(secretFile)) {
+            return;
+        }
+        String current;
+        try {
+            current = readSecretFile();
+        } catch (IllegalStateException e) {
+            log.warn("Segredo JWT mantido: {}", e.getMessage());
+            return;
+        }
+        if (!current.equals(secret)) {
+            rotateSecret(current);
+        }
+    }
+
+    private String readSecretFile() {
+        try {
+            return Files.readString(Path.of(secretFile), StandardCharsets.UTF_8).strip();
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível ler jwt.secret-file.path=" + secretFile, e);
+        }
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
+    /**
+     * Faz o parse e a verificação da assinatura uma única vez e devolve as claims
+     * já validadas, para que o chamador não precise parsear o mesmo token de novo.
+     *
+     * @throws io.jsonwebtoken.JwtException se o token for inválido ou estiver expirado
+     */
+    public VerifiedToken verify(String token) {
+        long start = System.nanoTime();
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (RuntimeException e) {
+            verifyFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        verifySuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new VerifiedToken(
+                claims.getSubject(),
+                extractRoles(claims),
+                toInstant(claims.getExpiration()),
+                toInstant(claims.getIssuedAt()),
+                claims.getId(),
+                claims.get(TOKEN_TYPE_CLAIM, String.class),
+                claims.get(FAMILY_CLAIM, String.class)
+        );
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
@@ -43,6 +227,8 @@ public class JwtService {
 
         if (userDetails instanceof User user) {
             extraClaims.put("roles", List.of(user.getRole()));
+        } else if (userDetails instanceof AuthUser user) {
+            extraClaims.put("roles", List.of(user.getRole()));
         } else {
             extraClaims.put("roles", userDetails.getAuthorities().stream()
                     .map(GrantedAuthority::getAuthority)
@@ -53,54 +239,229 @@ public class JwtService {
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        claims.put(TOKEN_TYPE_CLAIM, TOKEN_TYPE_ACCESS);
+        return buildToken(
+                claims,
+                userDetails,
+                UUID.randomUUID().toString(),
+                new Date(System.currentTimeMillis() + jwtExpiration),
+                accessSignTimer
+        );
     }
 
-    public String generateRefreshToken(UserDetails userDetails) {
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+    /**
+     * Refresh token de uma família registrada pelo {@link RefreshTokenService};
+     * o {@code jti} e a expiração são os mesmos gravados no banco.
+     */
+    public String generateRefreshToken(UserDetails userDetails, UUID jti, UUID familyId, Instant expiresAt) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE_CLAIM, TOKEN_TYPE_REFRESH);
+        claims.put(FAMILY_CLAIM, familyId.toString());
+        return buildToken(claims, userDetails, jti.toString(), Date.from(expiresAt), refreshSignTimer);
     }
 
     private String buildToken(
             Map<String, Object> extraClaims,
             UserDetails userDetails,
-            long expiration
+            String id,
+            Date expiration,
+            Timer timer
     ) {
-        return Jwts.builder()
+        long start = System.nanoTime();
+        JwtBuilder builder = Jwts.builder()
                 .claims(extraClaims)
+                .id(id)
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
-                .compact();
+                .expiration(expiration);
+        String token = signingState.sign(builder).compact();
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        final VerifiedToken verified = verify(token);
+        return verified.isIssuedTo(userDetails) && !verified.isExpired();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private List<String> extractRoles(Claims claims) {
+        Object roles = claims.get("roles");
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
+        }
+        return values.stream()
+                .map(String::valueOf)
+                .toList();
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        try {
+            return signingState.parser()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        } catch (SignatureException e) {
+            SigningState previous = previousSigningState;
+            if (previous == null) {
+                throw e;
+            }
+            return previous.parser()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        }
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Valores de {@code alg} que a verificação pode aceitar, para que tokens de
+     * outro algoritmo sejam recusados antes do parse.
+     */
+    public Set<String> getAcceptedAlgorithms() {
+        return acceptedAlgorithms;
+    }
+
+    /**
+     * Chaves públicas de verificação; vazio com {@code jwt.algorithm=HMAC}.
+     */
+    public JwkSetDocument getJwkSet() {
+        return jwkSet;
     }
 
     public long getExpirationTime() {
         return jwtExpiration;
     }
-}
\ No newline at end of file
+
+    public long getRefreshExpirationTime() {
+        return refreshExpiration;
+    }
+
+    private Timer signTimer(String type) {
+        return Timer.builder("auth.jwt.sign")
+                .description("Tempo de montagem e assinatura de tokens")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder("auth.jwt.verify")
+                .description("Tempo de parse e verificação de assinatura de tokens")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private boolean isHmac() {
+        return "HMAC".equalsIgnoreCase(algorithm);
+    }
+
+    /**
+     * Carrega a chave de assinatura e as de verificação uma única vez; o parser
+     * resultante escolhe a chave pelo {@code kid} do cabeçalho. Sem chave
+     * configurada, gera um par efêmero, útil só em desenvolvimento.
+     */
+    private SigningState loadAsymmetricState() {
+        SignatureAlgorithm signatureAlgorithm = JwtKeys.algorithm(algorithm);
+
+        KeyPair keyPair;
+        if (StringUtils.hasText(privateKeyLocation)) {
+            keyPair = new KeyPair(
+                    JwtKeys.readPublicKey(publicKeyLocation, signatureAlgorithm),
+                    JwtKeys.readPrivateKey(privateKeyLocation, signatureAlgorithm)
+            );
+        } else if (!allowEphemeralKeys) {
+            throw new IllegalStateException("jwt.algorithm=" + signatureAlgorithm.getId()
+                    + " exige jwt.keys.private-key; em desenvolvimento, jwt.keys.allow-ephemeral=true gera um par efêmero");
+        } else {
+            log.warn("jwt.keys.private-key não configurada: usando par de chaves {} efêmero. "
+                    + "Tokens perdem a validade ao reiniciar e não são aceitos por outras instâncias", signatureAlgorithm.getId());
+            keyPair = signatureAlgorithm.keyPair().build();
+        }
+
+        List<PublicJwk<?>> jwks = new ArrayList<>();
+        jwks.add(JwtKeys.toJwk(keyPair.getPublic(), signatureAlgorithm));
+        for (String location : retiredPublicKeyLocations) {
+            if (StringUtils.hasText(location)) {
+                jwks.add(JwtKeys.toJwk(JwtKeys.readPublicKey(location.trim(), signatureAlgorithm), signatureAlgorithm));
+            }
+        }
+
+        Map<String, Key> verificationKeys = new HashMap<>();
+        jwks.forEach(jwk -> verificationKeys.put(jwk.getId(), jwk.toKey()));
+
+        // Com o segredo ainda configurado, tokens HMAC emitidos antes da troca de
+        // algoritmo continuam válidos até expirarem
+        SecretKey legacyKey = StringUtils.hasText(secret)
+                ? Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))
+                : null;
+
+        JwtParser parser = Jwts.parser()
+                .keyLocator(new KeyIdLocator(Map.copyOf(verificationKeys), legacyKey))
+                .build();
+
+        this.jwkSet = JwkSetDocument.of(jwks.stream().map(Jwks::json).toList());
+        Set<String> algorithms = new HashSet<>();
+        algorithms.add(signatureAlgorithm.getId());
+        if (legacyKey != null) {
+            algorithms.addAll(HMAC_ALGORITHMS);
+        }
+        this.acceptedAlgorithms = Set.copyOf(algorithms);
+        String keyId = jwks.get(0).getId();
+        log.info("Tokens JWT assinados com {} (kid {}); {} chave(s) publicadas no JWKS",
+                signatureAlgorithm.getId(), keyId, jwks.size());
+        return new SigningState(keyPair.getPrivate(), signatureAlgorithm, keyId, parser);
+    }
+
+    /**
+     * Com HMAC, {@code algorithm} é nulo e o jjwt escolhe o HS* pelo tamanho da chave.
+     */
+    private record SigningState(Key key, SignatureAlgorithm algorithm, String keyId, JwtParser parser) {
+
+        static SigningState of(String secret) {
+            if (!StringUtils.hasText(secret)) {
+                throw new IllegalStateException("jwt.secret é obrigatório com jwt.algorithm=HMAC");
+            }
+            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            JwtParser parser = Jwts.parser()
+                    .verifyWith(key)
+                    .build();
+            return new SigningState(key, null, null, parser);
+        }
+
+        JwtBuilder sign(JwtBuilder builder) {
+            if (algorithm == null) {
+                return builder.signWith(key);
+            }
+            return builder.header().keyId(keyId).and()
+                    .signWith((PrivateKey) key, algorithm);
+        }
+    }
+
+    private static final class KeyIdLocator extends LocatorAdapter<Key> {
+
+        private final Map<String, Key> keys;
+        private final SecretKey legacyKey;
+
+        KeyIdLocator(Map<String, Key> keys, SecretKey legacyKey) {
+            this.keys = keys;
+            this.legacyKey = legacyKey;
+        }
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String keyId = header.getKeyId();
+            if (keyId == null) {
+                if (legacyKey != null && header.getAlgorithm().startsWith("HS")) {
+                    return legacyKey;
+                }
+                throw new UnsupportedJwtException("Token sem kid");
+            }
+            Key key = keys.get(keyId);
+            if (key == null) {
+                throw new UnsupportedJwtException("kid desconhecido: " + keyId);
+            }
+            return key;
+        }
+    }
+}
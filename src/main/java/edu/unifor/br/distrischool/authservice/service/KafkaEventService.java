@@ -1,14 +1,27 @@
 package edu.unifor.br.distrischool.authservice.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.unifor.br.distrischool.authservice.dto.UserEvent;
+import edu.unifor.br.distrischool.authservice.entity.OutboxEvent;
 import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.repository.OutboxEventRepository;
+import edu.unifor.br.distrischool.authservice.security.AuthUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
@@ -16,23 +29,82 @@ import java.time.format.DateTimeFormatter;
 public class KafkaEventService {
 
     private final KafkaTemplate<String, UserEvent> kafkaTemplate;
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
     private static final DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME;
 
+    private final Map<SendTimerKey, Timer> sendTimers = new ConcurrentHashMap<>();
+
+    /**
+     * Grava o evento na outbox dentro da transação do chamador; o {@link OutboxRelay}
+     * publica no Kafka depois do commit. Se a transação sofrer rollback o evento
+     * é descartado junto.
+     */
+    @Transactional
     public void publishUserEvent(String eventType, User user) {
+        record(eventType, UserEvent.builder()
+                .eventType(eventType)
+                .userId(user.getId())
+                .email(user.getEmail())
+                .name(user.getName())
+                .role(user.getRole())
+                .timestamp(LocalDateTime.now().format(formatter))
+                .build());
+    }
+
+    /**
+     * Mesmo evento a partir do {@link AuthUser} autenticado, sem carregar a entidade.
+     */
+    @Transactional
+    public void publishUserEvent(String eventType, AuthUser user) {
+        record(eventType, UserEvent.builder()
+                .eventType(eventType)
+                .userId(user.getId())
+                .email(user.getEmail())
+                .name(user.getName())
+                .role(user.getRole())
+                .timestamp(LocalDateTime.now().format(formatter))
+                .build());
+    }
+
+    private void record(String eventType, UserEvent event) {
         try {
-            UserEvent event = UserEvent.builder()
-                    .eventType(eventType)
-                    .userId(user.getId())
-                    .email(user.getEmail())
-                    .name(user.getName())
-                    .role(user.getRole())
-                    .timestamp(LocalDateTime.now().format(formatter))
-                    .build();
-
-            kafkaTemplate.send(eventType, event);
-            log.info("Evento publicado no Kafka: {} para usuário: {}", eventType, user.getEmail());
-        } catch (Exception e) {
-            log.error("Erro ao publicar evento no Kafka: {}", e.getMessage(), e);
+            outboxRepository.save(OutboxEvent.builder()
+                    .topic(eventType)
+                    .eventKey(event.getUserId() != null ? event.getUserId().toString() : null)
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar evento " + eventType, e);
         }
+
+        log.info("Evento registrado na outbox: {} para usuário: {}", eventType, event.getEmail());
+    }
+
+    /**
+     * Envia com o id do usuário como chave, garantindo a ordem dos eventos de um
+     * mesmo usuário dentro da partição. O callback de conclusão alimenta o timer
+     * {@code auth.kafka.producer.send} com o resultado do envio.
+     */
+    public CompletableFuture<SendResult<String, UserEvent>> send(String topic, String key, UserEvent event) {
+        long start = System.nanoTime();
+        return kafkaTemplate.send(topic, key, event)
+                .whenComplete((result, ex) -> sendTimer(topic, ex == null)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Um timer por tópico e resultado, criado no primeiro envio; evita a busca no
+     * registry a cada mensagem.
+     */
+    private Timer sendTimer(String topic, boolean success) {
+        return sendTimers.computeIfAbsent(new SendTimerKey(topic, success), key -> Timer.builder("auth.kafka.producer.send")
+                .tag("topic", key.topic())
+                .tag("outcome", key.success() ? "success" : "failure")
+                .register(meterRegistry));
+    }
+
+    private record SendTimerKey(String topic, boolean success) {
     }
 }
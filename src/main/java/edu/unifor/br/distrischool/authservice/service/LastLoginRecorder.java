@@ -0,0 +1,101 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import edu.unifor.br.distrischool.authservice.repository.LastLoginRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Acumula o último login de cada usuário e grava periodicamente em lotes, em vez
+ * de uma transação de escrita por login. Logins repetidos do mesmo usuário no
+ * intervalo viram uma única linha; o buffer fica limitado ao número de usuários
+ * distintos que entraram desde o último flush.
+ *
+ * <p>Se a instância cair antes do flush, os logins pendentes se perdem; o
+ * {@code last_login} é informativo e não participa de nenhuma decisão de segurança.
+ */
+@Component
+@Slf4j
+public class LastLoginRecorder {
+
+    private final LastLoginRepository lastLoginRepository;
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final Counter flushedCounter;
+
+    @Value("${app.security.last-login.batch-size:500}")
+    private int batchSize;
+
+    public LastLoginRecorder(LastLoginRepository lastLoginRepository, MeterRegistry meterRegistry) {
+        this.lastLoginRepository = lastLoginRepository;
+        this.flushedCounter = Counter.builder("auth.last-login.flushed")
+                .description("Logins gravados em users.last_login")
+                .register(meterRegistry);
+        Gauge.builder("auth.last-login.pending", pending, Map::size)
+                .description("Logins aguardando gravação")
+                .register(meterRegistry);
+    }
+
+    public void record(Long userId, LocalDateTime loginAt) {
+        pending.merge(userId, loginAt, (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+    }
+
+    /**
+     * Login ainda não gravado, para que o perfil não mostre um valor anterior ao
+     * login que acabou de acontecer.
+     */
+    public Optional<LocalDateTime> pending(Long userId) {
+        return Optional.ofNullable(pending.get(userId));
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.security.last-login.flush-interval:5s}",
+            fixedDelayString = "${app.security.last-login.flush-interval:5s}"
+    )
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, LocalDateTime>> batch = new ArrayList<>(Math.min(pending.size(), batchSize));
+        for (Map.Entry<Long, LocalDateTime> entry : pending.entrySet()) {
+            batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(List<Map.Entry<Long, LocalDateTime>> batch) {
+        try {
+            lastLoginRepository.updateLastLogins(batch);
+        } catch (RuntimeException e) {
+            // Continuam pendentes e entram no próximo flush
+            log.warn("Falha ao gravar {} logins: {}", batch.size(), e.getMessage());
+            return;
+        }
+        // Só remove se não houve login mais novo durante a gravação
+        batch.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+        flushedCounter.increment(batch.size());
+    }
+}
@@ -0,0 +1,176 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import edu.unifor.br.distrischool.authservice.entity.MailDeadLetter;
+import edu.unifor.br.distrischool.authservice.entity.MailType;
+import edu.unifor.br.distrischool.authservice.entity.TokenPurpose;
+import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.repository.MailDeadLetterRepository;
+import edu.unifor.br.distrischool.authservice.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reenvia os emails de {@code mail_dead_letters}, como os que ficaram na fila
+ * num encerramento ou falharam durante uma indisponibilidade do SMTP. O conteúdo
+ * é gerado de novo a partir do tipo, com um token novo; a linha sai da tabela na
+ * mesma transação em que o token é emitido, e o email entra na fila após o commit.
+ * Depois de {@code app.mail.replay.max-replays} reenvios a linha fica na tabela
+ * para análise manual. Um pedido de redefinição de senha só é reenviado enquanto
+ * o token que ele pediu ainda seria válido; depois disso é descartado, para que o
+ * usuário não receba horas depois um link que não pediu de novo. Também não é
+ * reenviado se o usuário já pediu outro link depois, que o reenvio invalidaria.
+ */
+@Component
+@Slf4j
+public class MailDeadLetterReplayer {
+
+    private final MailDeadLetterRepository deadLetterRepository;
+    private final UserRepository userRepository;
+    private final UserTokenService userTokenService;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter replayedCounter;
+    private final Counter discardedCounter;
+    private final Counter expiredCounter;
+
+    @Value("${app.mail.replay.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.mail.replay.max-replays:3}")
+    private int maxReplays;
+
+    @Value("${app.security.tokens.password-reset.ttl:1h}")
+    private Duration passwordResetTtl;
+
+    public MailDeadLetterReplayer(
+            MailDeadLetterRepository deadLetterRepository,
+            UserRepository userRepository,
+            UserTokenService userTokenService,
+            EmailService emailService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.deadLetterRepository = deadLetterRepository;
+        this.userRepository = userRepository;
+        this.userTokenService = userTokenService;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.replayedCounter = Counter.builder("auth.mail.replayed")
+                .description("Emails reenviados a partir da dead letter")
+                .register(meterRegistry);
+        this.discardedCounter = discardedCounter(meterRegistry, "obsolete");
+        this.expiredCounter = discardedCounter(meterRegistry, "expired");
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.mail.replay.interval:10m}",
+            fixedDelayString = "${app.mail.replay.interval:10m}"
+    )
+    public void replay() {
+        try {
+            Integer replayed = transactionTemplate.execute(status -> replayBatch());
+            if (replayed != null && replayed > 0) {
+                log.info("{} email(s) reenviados a partir da dead letter", replayed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao reenviar emails da dead letter: {}", e.getMessage());
+        }
+    }
+
+    private int replayBatch() {
+        List<MailDeadLetter> deadLetters = deadLetterRepository.lockReplayable(maxReplays, batchSize);
+        int replayed = 0;
+        for (MailDeadLetter deadLetter : deadLetters) {
+            if (isExpired(deadLetter)) {
+                expiredCounter.increment();
+                log.info("Pedido de redefinição de senha de {} expirado, não será reenviado", deadLetter.getRecipient());
+            } else if (replay(deadLetter)) {
+                replayed++;
+                replayedCounter.increment();
+            } else {
+                discardedCounter.increment();
+            }
+        }
+        deadLetterRepository.deleteAllInBatch(deadLetters);
+        return replayed;
+    }
+
+    private boolean isExpired(MailDeadLetter deadLetter) {
+        return deadLetter.getMailType() == MailType.PASSWORD_RESET
+                && deadLetter.getRequestedAt().plus(passwordResetTtl).isBefore(LocalDateTime.now());
+    }
+
+    /**
+     * {@code false} quando o email não faz mais sentido: usuário removido ou,
+     * para a verificação, email já verificado.
+     */
+    private boolean replay(MailDeadLetter deadLetter) {
+        Optional<User> found = userRepository.findByEmail(deadLetter.getRecipient());
+        if (found.isEmpty()) {
+            return false;
+        }
+        User user = found.get();
+        int replays = deadLetter.getReplays() + 1;
+        LocalDateTime requestedAt = deadLetter.getRequestedAt();
+
+        switch (deadLetter.getMailType()) {
+            case EMAIL_VERIFICATION -> {
+                if (user.isEmailVerified()) {
+                    return false;
+                }
+                String token = userTokenService.issue(user, TokenPurpose.EMAIL_VERIFICATION);
+                emailService.sendVerificationEmail(user.getEmail(), token, replays, requestedAt);
+            }
+            case PASSWORD_RESET -> {
+                if (hasNewerResetToken(user, deadLetter)) {
+                    return false;
+                }
+                String token = userTokenService.issue(user, TokenPurpose.PASSWORD_RESET);
+                emailService.sendPasswordResetEmail(user.getEmail(), token, replays, requestedAt);
+            }
+            case ACCOUNT_CREATED -> {
+                if (hasNewerResetToken(user, deadLetter)) {
+                    return false;
+                }
+                String token = userTokenService.issue(user, TokenPurpose.PASSWORD_RESET);
+                emailService.sendAccountCreatedEmail(user.getEmail(), token, replays, requestedAt);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Emitir um token novo substitui o atual: se o usuário pediu de novo depois do
+     * email que falhou, o link que ele já recebeu seria invalidado por um que ele
+     * não pediu. O token do email que falhou foi emitido antes do pedido; o de um
+     * reenvio que falhou, antes de a dead letter ser gravada de novo.
+     */
+    private boolean hasNewerResetToken(User user, MailDeadLetter deadLetter) {
+        LocalDateTime failedTokenIssuedBefore = deadLetter.getReplays() == 0
+                ? deadLetter.getRequestedAt()
+                : deadLetter.getCreatedAt();
+        if (userTokenService.hasTokenIssuedAfter(user, TokenPurpose.PASSWORD_RESET, failedTokenIssuedBefore)) {
+            log.info("{} já tem um link de redefinição mais recente, email não será reenviado", user.getEmail());
+            return true;
+        }
+        return false;
+    }
+
+    private static Counter discardedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("auth.mail.replay.discarded")
+                .description("Dead letters descartadas sem reenvio")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,318 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import edu.unifor.br.distrischool.authservice.entity.MailDeadLetter;
+import edu.unifor.br.distrischool.authservice.entity.MailType;
+import edu.unifor.br.distrischool.authservice.repository.MailDeadLetterRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fila de saída de emails. As mensagens só entram na fila depois do commit da
+ * transação que as gerou e são enviadas em lotes por uma única conexão SMTP
+ * cada, com até {@code app.mail.executor.concurrency} lotes em paralelo.
+ * Falhas são reenfileiradas com backoff exponencial; ao esgotar as tentativas
+ * a mensagem é gravada em {@code mail_dead_letters}, só com destinatário, tipo e
+ * erro. O corpo, que leva links com token ou senha temporária, nunca é
+ * persistido: o {@link MailDeadLetterReplayer} gera o conteúdo de novo.
+ */
+@Component
+@Slf4j
+public class MailDispatcher implements SmartLifecycle {
+
+    private final JavaMailSender mailSender;
+    private final AsyncTaskExecutor mailTaskExecutor;
+    private final MailDeadLetterRepository deadLetterRepository;
+    private final TransactionTemplate deadLetterTransaction;
+
+    private final DelayQueue<PendingMail> queue = new DelayQueue<>();
+    private final Semaphore inFlightBatches;
+    private final int concurrency;
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter deadLetteredCounter;
+
+    @Value("${app.mail.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.mail.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.mail.retry.initial-backoff:2s}")
+    private Duration initialBackoff;
+
+    @Value("${app.mail.retry.max-backoff:5m}")
+    private Duration maxBackoff;
+
+    @Value("${app.mail.shutdown-timeout:20s}")
+    private Duration shutdownTimeout;
+
+    private volatile boolean running;
+
+    public MailDispatcher(
+            JavaMailSender mailSender,
+            @Qualifier("mailTaskExecutor") AsyncTaskExecutor mailTaskExecutor,
+            MailDeadLetterRepository deadLetterRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.mail.executor.concurrency:8}") int concurrency
+    ) {
+        this.mailSender = mailSender;
+        this.mailTaskExecutor = mailTaskExecutor;
+        this.deadLetterRepository = deadLetterRepository;
+        // Transação própria: enqueue pode rodar dentro do afterCommit de outra transação
+        this.deadLetterTransaction = new TransactionTemplate(transactionManager);
+        this.deadLetterTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.inFlightBatches = new Semaphore(concurrency);
+        this.concurrency = concurrency;
+
+        this.sendTimer = Timer.builder("auth.mail.send").register(meterRegistry);
+        this.sentCounter = Counter.builder("auth.mail.sent").register(meterRegistry);
+        this.retriedCounter = Counter.builder("auth.mail.retried").register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("auth.mail.dead-lettered").register(meterRegistry);
+        Gauge.builder("auth.mail.queue", queue, DelayQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * Enfileira a mensagem após o commit da transação corrente, ou imediatamente
+     * se não houver transação ativa. Se a transação sofrer rollback nada é enviado.
+     */
+    public void dispatchAfterCommit(SimpleMailMessage message, MailType type) {
+        dispatchAfterCommit(message, type, 0, LocalDateTime.now());
+    }
+
+    /**
+     * {@code replays}: quantas vezes a mensagem já saiu da dead letter, para que
+     * um destinatário inválido não seja reenviado indefinidamente.
+     * {@code requestedAt}: quando o email foi pedido pela primeira vez.
+     */
+    void dispatchAfterCommit(SimpleMailMessage message, MailType type, int replays, LocalDateTime requestedAt) {
+        PendingMail pending = new PendingMail(message, type, 0, replays, requestedAt, System.nanoTime());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(pending);
+                }
+            });
+        } else {
+            enqueue(pending);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.dispatch-interval:200ms}")
+    public void drain() {
+        while (running && !queue.isEmpty() && inFlightBatches.tryAcquire()) {
+            List<PendingMail> batch = new ArrayList<>(batchSize);
+            queue.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                inFlightBatches.release();
+                return;
+            }
+
+            try {
+                mailTaskExecutor.execute(() -> {
+                    try {
+                        send(batch);
+                    } finally {
+                        inFlightBatches.release();
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                inFlightBatches.release();
+                queue.addAll(batch);
+                return;
+            }
+        }
+    }
+
+    private void send(List<PendingMail> batch) {
+        SimpleMailMessage[] messages = batch.stream()
+                .map(PendingMail::message)
+                .toArray(SimpleMailMessage[]::new);
+
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages);
+            sentCounter.increment(batch.size());
+            log.info("Lote de {} email(s) enviado", batch.size());
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            for (PendingMail pending : batch) {
+                Exception cause = failed.isEmpty() ? e : failed.get(pending.message());
+                if (cause == null) {
+                    sentCounter.increment();
+                } else {
+                    retryOrDeadLetter(pending, cause);
+                }
+            }
+        } catch (MailException e) {
+            batch.forEach(pending -> retryOrDeadLetter(pending, e));
+        } finally {
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void retryOrDeadLetter(PendingMail pending, Exception cause) {
+        int attempts = pending.attempts() + 1;
+        String recipient = String.join(",", pending.message().getTo());
+
+        if (attempts >= maxAttempts || !running) {
+            log.error("Falha definitiva ao enviar email para {} após {} tentativas: {}",
+                    recipient, attempts, cause.getMessage());
+            deadLetter(pending.withAttempts(attempts), cause.getMessage());
+            return;
+        }
+
+        long backoffMillis = Math.min(
+                initialBackoff.toMillis() << Math.min(attempts - 1, 20),
+                maxBackoff.toMillis()
+        );
+        log.warn("Erro ao enviar email para {} (tentativa {}), nova tentativa em {}ms: {}",
+                recipient, attempts, backoffMillis, cause.getMessage());
+        retriedCounter.increment();
+        queue.add(pending.withAttempts(attempts)
+                .readyAt(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis)));
+    }
+
+    private void enqueue(PendingMail pending) {
+        if (!running || queue.size() >= queueCapacity) {
+            log.warn("Fila de emails indisponível ou cheia ({}), gravando em dead letter", queue.size());
+            deadLetter(pending, "Fila de envio cheia");
+            return;
+        }
+        queue.add(pending);
+    }
+
+    private void deadLetter(PendingMail pending, String error) {
+        SimpleMailMessage message = pending.message();
+        try {
+            deadLetterTransaction.executeWithoutResult(status -> deadLetterRepository.save(MailDeadLetter.builder()
+                    .recipient(String.join(",", message.getTo()))
+                    .subject(message.getSubject())
+                    .mailType(pending.type())
+                    .attempts(pending.attempts())
+                    .replays(pending.replays())
+                    .lastError(error)
+                    .requestedAt(pending.requestedAt())
+                    .build()));
+            deadLetteredCounter.increment();
+        } catch (Exception e) {
+            log.error("Erro ao gravar email em dead letter para {}: {}",
+                    String.join(",", message.getTo()), e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * Num encerramento normal espera os lotes em andamento e envia o que restou
+     * na fila, ignorando o backoff, até {@code app.mail.shutdown-timeout}. Só o
+     * que não couber no prazo (ou falhar) vai para a dead letter, de onde o
+     * {@link MailDeadLetterReplayer} reenvia depois.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+
+        boolean idle = awaitInFlightBatches(deadline);
+        List<PendingMail> remaining = new ArrayList<>(queue);
+        queue.clear();
+
+        int sent = 0;
+        if (idle) {
+            try {
+                while (sent < remaining.size() && deadline - System.nanoTime() > 0) {
+                    List<PendingMail> batch = remaining.subList(sent, Math.min(sent + batchSize, remaining.size()));
+                    send(batch);
+                    sent += batch.size();
+                }
+            } finally {
+                inFlightBatches.release(concurrency);
+            }
+        }
+
+        if (sent < remaining.size()) {
+            log.warn("Encerrando com {} email(s) não enviados, gravando em dead letter", remaining.size() - sent);
+            remaining.subList(sent, remaining.size()).forEach(pending -> deadLetter(pending, "Serviço encerrado"));
+        }
+    }
+
+    private boolean awaitInFlightBatches(long deadline) {
+        try {
+            return inFlightBatches.tryAcquire(concurrency, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record PendingMail(
+            SimpleMailMessage message,
+            MailType type,
+            int attempts,
+            int replays,
+            LocalDateTime requestedAt,
+            long readyAtNanos
+    ) implements Delayed {
+
+        PendingMail withAttempts(int attempts) {
+            return new PendingMail(message, type, attempts, replays, requestedAt, readyAtNanos);
+        }
+
+        PendingMail readyAt(long readyAtNanos) {
+            return new PendingMail(message, type, attempts, replays, requestedAt, readyAtNanos);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(readyAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(readyAtNanos, ((PendingMail) other).readyAtNanos);
+        }
+    }
+}
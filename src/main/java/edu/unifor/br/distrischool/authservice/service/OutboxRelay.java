@@ -0,0 +1,168 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.unifor.br.distrischool.authservice.dto.UserEvent;
+import edu.unifor.br.distrischool.authservice.entity.OutboxEvent;
+import edu.unifor.br.distrischool.authservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drena a {@code user_event_outbox} para o Kafka em lotes. Cada lote é reivindicado
+ * numa transação curta ({@code claimed_until}), publicado fora dela e removido em
+ * outra: nenhum lock de linha fica preso esperando o broker. Se algum envio falhar
+ * a reivindicação é liberada e o lote é reenviado no próximo ciclo; se a instância
+ * cair, ele volta quando a reivindicação vence (entrega at-least-once).
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxRepository;
+    private final KafkaEventService kafkaEventService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    @Value("${app.outbox.claim-timeout:60s}")
+    private Duration claimTimeout;
+
+    /**
+     * Limite de cada execução de {@link #relay()}: com backlog grande ela devolve
+     * a thread do scheduler e continua no ciclo seguinte, sem atrasar as outras
+     * tarefas agendadas.
+     */
+    @Value("${app.outbox.max-run-time:5s}")
+    private Duration maxRunTime;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxRepository,
+            KafkaEventService kafkaEventService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaEventService = kafkaEventService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.publishedCounter = Counter.builder("auth.outbox.published").register(meterRegistry);
+        this.failedCounter = Counter.builder("auth.outbox.failed").register(meterRegistry);
+        this.batchTimer = Timer.builder("auth.outbox.relay.batch").register(meterRegistry);
+        Gauge.builder("auth.outbox.lag", lagSeconds, AtomicLong::get)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:200ms}")
+    public void relay() {
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        try {
+            int published;
+            do {
+                published = batchTimer.record(this::publishBatch);
+            } while (published == batchSize && deadline - System.nanoTime() > 0);
+        } catch (IllegalStateException e) {
+            // já logado; o lote continua na outbox para o próximo ciclo
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.lag-interval:5s}")
+    public void updateLag() {
+        LocalDateTime oldest = outboxRepository.findOldestCreatedAt();
+        lagSeconds.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toSeconds());
+    }
+
+    private int publishBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+
+        // Sem metadados ou sem espaço no buffer cada send() bloqueia até max.block.ms:
+        // o lote para no primeiro envio que falhar ou ao estourar o send-timeout, para
+        // terminar bem antes da reivindicação vencer
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent outboxEvent : batch) {
+            CompletableFuture<?> send = send(outboxEvent);
+            sends.add(send);
+            if (send.isCompletedExceptionally() || deadline - System.nanoTime() <= 0) {
+                break;
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (sends.size() < batch.size()) {
+                throw new TimeoutException("send-timeout esgotado após " + sends.size() + " envio(s)");
+            }
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.claim(ids, null));
+            log.error("Erro ao publicar lote de {} evento(s) da outbox, será reenviado: {}",
+                    batch.size(), e.getMessage());
+            throw new IllegalStateException("Falha ao publicar lote da outbox", e);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteByIds(ids));
+        publishedCounter.increment(batch.size());
+        log.debug("Lote de {} evento(s) publicado a partir da outbox", batch.size());
+        return batch.size();
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxRepository.lockNextBatch(batchSize, now);
+        if (!batch.isEmpty()) {
+            outboxRepository.claim(batch.stream().map(OutboxEvent::getId).toList(), now.plus(claimTimeout));
+        }
+        return batch;
+    }
+
+    private CompletableFuture<?> send(OutboxEvent outboxEvent) {
+        try {
+            UserEvent event = objectMapper.readValue(outboxEvent.getPayload(), UserEvent.class);
+            return kafkaEventService.send(outboxEvent.getTopic(), outboxEvent.getEventKey(), event);
+        } catch (JsonProcessingException e) {
+            // Payload ilegível nunca vai ser publicado; descarta para não travar a outbox
+            failedCounter.increment();
+            log.error("Evento {} da outbox com payload inválido, descartando: {}", outboxEvent.getId(), e.getMessage());
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            // O KafkaTemplate relança de forma síncrona o que o producer já falhou no send()
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
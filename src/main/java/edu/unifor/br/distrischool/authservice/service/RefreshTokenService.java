@@ -0,0 +1,223 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import edu.unifor.br.distrischool.authservice.entity.RefreshToken;
+import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.exception.InvalidTokenException;
+import edu.unifor.br.distrischool.authservice.repository.RefreshTokenFamilyRepository;
+import edu.unifor.br.distrischool.authservice.repository.RefreshTokenRepository;
+import edu.unifor.br.distrischool.authservice.security.AuthUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * Famílias de refresh tokens: cada login abre uma família, cada refresh troca o
+ * token por um novo da mesma família e marca o anterior como usado. Um token já
+ * usado apresentado de novo indica que ele vazou, então a família inteira é
+ * revogada e o usuário precisa fazer login outra vez.
+ *
+ * <p>O banco é a fonte da verdade; a rotação é um único UPDATE condicional pelo
+ * {@code jti}. Em memória ficam apenas os estados definitivos (token usado,
+ * família revogada), com expiração igual à do próprio token, para recusar
+ * reuso e tokens revogados sem ir ao banco. Eles só entram na memória depois
+ * do commit: se a transação falhar, o banco desfaz o {@code used_at} e uma nova
+ * tentativa do cliente com o mesmo token não pode parecer reuso.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository tokenRepository;
+    private final RefreshTokenFamilyRepository familyRepository;
+    private final JwtService jwtService;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    /** jti de tokens já rotacionados → família, até o token expirar. */
+    private final Cache<UUID, UsedToken> usedTokens;
+
+    /** Famílias revogadas, até o último token que elas podem ter emitido expirar. */
+    private final Cache<UUID, Boolean> revokedFamilies;
+
+    private final Counter reuseDetected;
+
+    public RefreshTokenService(
+            RefreshTokenRepository tokenRepository,
+            RefreshTokenFamilyRepository familyRepository,
+            JwtService jwtService,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.refresh-tokens.hot-set.max-size:500000}") long maxSize
+    ) {
+        this.tokenRepository = tokenRepository;
+        this.familyRepository = familyRepository;
+        this.jwtService = jwtService;
+        this.usedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<UUID, UsedToken>creating(
+                        (jti, used) -> remaining(used.expiresAt())))
+                .recordStats()
+                .build();
+        this.revokedFamilies = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(jwtService.getRefreshExpirationTime()))
+                .recordStats()
+                .build();
+        this.reuseDetected = Counter.builder("auth.refresh-token.reuse")
+                .description("Refresh tokens reapresentados após a rotação (família revogada)")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, usedTokens, "refreshTokensUsed");
+        CaffeineCacheMetrics.monitor(meterRegistry, revokedFamilies, "refreshTokenFamiliesRevoked");
+    }
+
+    /**
+     * Abre uma família nova (login) e devolve o primeiro refresh token dela.
+     */
+    @Transactional
+    public String issue(User user) {
+        return issue(user.getId(), user);
+    }
+
+    /**
+     * Variante para o login, que já tem o {@link AuthUser} autenticado e não
+     * precisa carregar a entidade.
+     */
+    @Transactional
+    public String issue(AuthUser user) {
+        return issue(user.getId(), user);
+    }
+
+    private String issue(Long userId, UserDetails user) {
+        UUID familyId = UUID.randomUUID();
+        familyRepository.insert(familyId, userId, LocalDateTime.now());
+        return issueInFamily(user, familyId);
+    }
+
+    /**
+     * Troca um refresh token válido por um novo da mesma família. A revogação por
+     * reuso precisa sobreviver à exceção, por isso ela não desfaz a transação.
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public String rotate(VerifiedToken token, User user) {
+        UUID jti = parse(token.id());
+        UUID familyId = parse(token.familyId());
+
+        if (revokedFamilies.getIfPresent(familyId) != null) {
+            throw new InvalidTokenException("Refresh token revogado");
+        }
+        UsedToken used = usedTokens.getIfPresent(jti);
+        if (used != null) {
+            revokeOnReuse(used.familyId(), user);
+        }
+
+        if (tokenRepository.markUsedIfActive(jti, LocalDateTime.now()) == 0) {
+            rejectInactive(jti, user);
+        }
+        UsedToken rotated = new UsedToken(familyId, token.expiresAt());
+        afterCommit(() -> usedTokens.put(jti, rotated));
+
+        return issueInFamily(user, familyId);
+    }
+
+    /**
+     * Logout: revoga a família do token, invalidando ele e todos os sucessores.
+     */
+    @Transactional
+    public void revoke(VerifiedToken token) {
+        UUID familyId = parse(token.familyId());
+        familyRepository.revoke(familyId, LocalDateTime.now());
+        afterCommit(() -> revokedFamilies.put(familyId, Boolean.TRUE));
+    }
+
+    /**
+     * Revoga todas as sessões do usuário (ex.: após troca de senha).
+     */
+    @Transactional
+    public void revokeAll(User user) {
+        int revoked = familyRepository.revokeAllByUserId(user.getId(), LocalDateTime.now());
+        log.info("{} sessões revogadas para: {}", revoked, user.getEmail());
+    }
+
+    private String issueInFamily(UserDetails user, UUID familyId) {
+        UUID jti = UUID.randomUUID();
+        Instant expiresAt = Instant.now().plusMillis(jwtService.getRefreshExpirationTime());
+        tokenRepository.insert(jti, familyId, LocalDateTime.ofInstant(expiresAt, zone));
+        return jwtService.generateRefreshToken(user, jti, familyId, expiresAt);
+    }
+
+    /**
+     * O UPDATE não pegou a linha: descobre o motivo para distinguir reuso, que
+     * revoga a família, de token expirado, revogado ou desconhecido.
+     */
+    private void rejectInactive(UUID jti, User user) {
+        RefreshToken stored = tokenRepository.findById(jti)
+                .orElseThrow(() -> new InvalidTokenException("Refresh token desconhecido"));
+
+        if (stored.getUsedAt() != null) {
+            UsedToken used = new UsedToken(stored.getFamilyId(), stored.getExpiresAt().atZone(zone).toInstant());
+            afterCommit(() -> usedTokens.put(jti, used));
+            revokeOnReuse(stored.getFamilyId(), user);
+        }
+        familyRepository.findById(stored.getFamilyId())
+                .filter(family -> family.getRevokedAt() != null)
+                .ifPresent(family -> afterCommit(() -> revokedFamilies.put(family.getId(), Boolean.TRUE)));
+        throw new InvalidTokenException("Refresh token expirado ou revogado");
+    }
+
+    private void revokeOnReuse(UUID familyId, User user) {
+        familyRepository.revoke(familyId, LocalDateTime.now());
+        afterCommit(() -> revokedFamilies.put(familyId, Boolean.TRUE));
+        reuseDetected.increment();
+        log.warn("Reuso de refresh token detectado para {}; família {} revogada", user.getEmail(), familyId);
+        throw new InvalidTokenException("Refresh token já utilizado");
+    }
+
+    /**
+     * Aplica a mudança no hot-set só depois do commit, ou na hora fora de transação.
+     */
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static Duration remaining(Instant expiresAt) {
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private static UUID parse(String value) {
+        if (value == null) {
+            throw new InvalidTokenException("Refresh token inválido");
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("Refresh token inválido");
+        }
+    }
+
+    private record UsedToken(UUID familyId, Instant expiresAt) {
+    }
+}
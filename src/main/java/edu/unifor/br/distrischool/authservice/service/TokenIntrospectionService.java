@@ -0,0 +1,85 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import edu.unifor.br.distrischool.authservice.dto.TokenIntrospectionResponse;
+import edu.unifor.br.distrischool.authservice.security.BearerTokenAuthenticator;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validação de access tokens para outros serviços. Cada token passa pela mesma
+ * pré-checagem, cache e deny-list do filtro de autenticação: lixo é recusado
+ * sem parse e tokens repetidos não têm a assinatura verificada de novo. A
+ * resposta sai só das claims verificadas, sem carregar o usuário.
+ */
+@Service
+@Slf4j
+public class TokenIntrospectionService {
+
+    private final BearerTokenAuthenticator authenticator;
+    private final Counter activeCounter;
+    private final Counter inactiveCounter;
+
+    public TokenIntrospectionService(
+            BearerTokenAuthenticator authenticator,
+            MeterRegistry meterRegistry
+    ) {
+        this.authenticator = authenticator;
+        this.activeCounter = introspectionCounter(meterRegistry, "active");
+        this.inactiveCounter = introspectionCounter(meterRegistry, "inactive");
+    }
+
+    public TokenIntrospectionResponse introspect(String token) {
+        TokenIntrospectionResponse response = verify(token);
+        (response.isActive() ? activeCounter : inactiveCounter).increment();
+        return response;
+    }
+
+    /**
+     * Um gateway costuma repetir o mesmo token em várias requisições do lote;
+     * cada token distinto é verificado uma única vez.
+     */
+    public List<TokenIntrospectionResponse> introspect(List<String> tokens) {
+        Map<String, TokenIntrospectionResponse> results = new HashMap<>();
+        return tokens.stream()
+                .map(token -> results.computeIfAbsent(token, this::introspect))
+                .toList();
+    }
+
+    private TokenIntrospectionResponse verify(String token) {
+        VerifiedToken verified;
+        try {
+            verified = authenticator.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token inativo na introspecção: {}", e.getMessage());
+            return TokenIntrospectionResponse.inactive();
+        }
+
+        // Malformado, refresh token ou revogado
+        if (verified == null) {
+            return TokenIntrospectionResponse.inactive();
+        }
+
+        return TokenIntrospectionResponse.builder()
+                .active(true)
+                .sub(verified.subject())
+                .roles(verified.roles())
+                .exp(verified.expiresAt() != null ? verified.expiresAt().getEpochSecond() : null)
+                .iat(verified.issuedAt() != null ? verified.issuedAt().getEpochSecond() : null)
+                .jti(verified.id())
+                .build();
+    }
+
+    private static Counter introspectionCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.introspection")
+                .description("Tokens verificados pelo endpoint de introspecção")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,78 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import edu.unifor.br.distrischool.authservice.entity.TokenPurpose;
+import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.repository.UserTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Tokens de uso único enviados por email. O banco guarda só o SHA-256 do
+ * token, então um dump da tabela não permite verificar emails nem trocar senhas.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserTokenService {
+
+    private final UserTokenRepository userTokenRepository;
+
+    @Value("${app.security.tokens.email-verification.ttl:7d}")
+    private Duration emailVerificationTtl;
+
+    @Value("${app.security.tokens.password-reset.ttl:1h}")
+    private Duration passwordResetTtl;
+
+    /**
+     * Gera um novo token para o usuário, invalidando o anterior da mesma finalidade,
+     * e devolve o valor em claro para ser enviado por email.
+     */
+    public String issue(User user, TokenPurpose purpose) {
+        String token = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        userTokenRepository.save(user.getId(), purpose, hash(token), now, now.plus(ttl(purpose)));
+        return token;
+    }
+
+    /**
+     * Se o usuário já tem um token da finalidade emitido depois de {@code since},
+     * ou seja, pediu de novo e recebeu um link mais recente.
+     */
+    public boolean hasTokenIssuedAfter(User user, TokenPurpose purpose, LocalDateTime since) {
+        return userTokenRepository.findCreatedAt(user.getId(), purpose)
+                .map(createdAt -> createdAt.isAfter(since))
+                .orElse(false);
+    }
+
+    /**
+     * Consome o token e devolve o id do usuário dono, ou vazio se o token não
+     * existir, já tiver sido usado ou estiver expirado.
+     */
+    public Optional<Long> consume(String token, TokenPurpose purpose) {
+        return userTokenRepository.consume(purpose, hash(token), Instant.now());
+    }
+
+    private Duration ttl(TokenPurpose purpose) {
+        return switch (purpose) {
+            case EMAIL_VERIFICATION -> emailVerificationTtl;
+            case PASSWORD_RESET -> passwordResetTtl;
+        };
+    }
+
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
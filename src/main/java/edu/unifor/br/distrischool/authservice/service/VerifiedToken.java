@@ -0,0 +1,36 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims de um JWT cuja assinatura e expiração já foram verificadas.
+ */
+public record VerifiedToken(
+        String subject,
+        List<String> roles,
+        Instant expiresAt,
+        Instant issuedAt,
+        String id,
+        String type,
+        String familyId
+) {
+
+    /**
+     * Tokens emitidos antes da claim {@code typ} não têm tipo e são tratados como
+     * tokens de acesso.
+     */
+    public boolean isRefreshToken() {
+        return JwtService.TOKEN_TYPE_REFRESH.equals(type);
+    }
+
+    public boolean isIssuedTo(UserDetails userDetails) {
+        return subject != null && subject.equals(userDetails.getUsername());
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+}
@@ -0,0 +1,27 @@
+-- V3__create_mail_dead_letters_table.sql
+
+-- Só o tipo do email é gravado, nunca o corpo: ele traz links de verificação/reset
+-- e senhas temporárias em claro. O conteúdo é gerado de novo, com tokens novos,
+-- quando a mensagem é reenviada.
+CREATE TABLE IF NOT EXISTS mail_dead_letters (
+    id BIGSERIAL PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    mail_type VARCHAR(30) NOT NULL,
+    attempts INTEGER NOT NULL,
+    replays INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    requested_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT ck_mail_dead_letters_mail_type
+        CHECK (mail_type IN ('EMAIL_VERIFICATION', 'PASSWORD_RESET', 'ACCOUNT_CREATED'))
+);
+
+CREATE INDEX idx_mail_dead_letters_created_at ON mail_dead_letters(created_at);
+
+COMMENT ON TABLE mail_dead_letters IS 'Emails que esgotaram as tentativas de envio';
+COMMENT ON COLUMN mail_dead_letters.mail_type IS 'Tipo do email, usado para gerar o conteúdo de novo no reenvio';
+COMMENT ON COLUMN mail_dead_letters.attempts IS 'Número de tentativas de envio realizadas';
+COMMENT ON COLUMN mail_dead_letters.replays IS 'Quantas vezes o email já foi reenviado a partir da dead letter';
+COMMENT ON COLUMN mail_dead_letters.last_error IS 'Erro da última tentativa';
+COMMENT ON COLUMN mail_dead_letters.requested_at IS 'Quando o email foi pedido pela primeira vez, mantido entre reenvios';
@@ -0,0 +1,22 @@
+-- V4__create_user_event_outbox_table.sql
+
+CREATE TABLE IF NOT EXISTS user_event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(100) NOT NULL,
+    event_key VARCHAR(100),
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    claimed_until TIMESTAMP
+);
+
+-- Eventos de um usuário só são reivindicados depois dos anteriores dele
+CREATE INDEX idx_user_event_outbox_event_key_id ON user_event_outbox (event_key, id);
+
+COMMENT ON TABLE user_event_outbox IS 'Eventos de usuário gravados na mesma transação da alteração, aguardando publicação no Kafka';
+COMMENT ON COLUMN user_event_outbox.topic IS 'Tópico Kafka de destino';
+COMMENT ON COLUMN user_event_outbox.event_key IS 'Chave da mensagem (id do usuário)';
+COMMENT ON COLUMN user_event_outbox.payload IS 'UserEvent serializado em JSON';
+-- O relay reivindica um lote, confirma e só então publica, sem segurar locks de
+-- linha enquanto espera o Kafka. Se a instância cair, o lote volta a ficar
+-- disponível quando a reivindicação vence.
+COMMENT ON COLUMN user_event_outbox.claimed_until IS 'Até quando o lote está reservado para a instância que vai publicá-lo';
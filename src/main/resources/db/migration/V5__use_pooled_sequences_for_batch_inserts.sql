@@ -0,0 +1,8 @@
+-- V5__use_pooled_sequences_for_batch_inserts.sql
+
+-- O Hibernate reserva blocos de 50 ids por chamada à sequence (allocationSize = 50),
+-- o que permite agrupar os INSERTs em batch. Inserts diretos via DEFAULT nextval
+-- continuam funcionando, apenas consomem um bloco inteiro.
+-- A outbox fica de fora: a ordem dos ids é a ordem de publicação por usuário, e
+-- blocos reservados por instância quebrariam essa ordem.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
@@ -0,0 +1,25 @@
+-- V6__create_refresh_token_tables.sql
+
+CREATE TABLE IF NOT EXISTS refresh_token_families (
+    id UUID PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    revoked_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_families_user_id ON refresh_token_families(user_id);
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    jti UUID PRIMARY KEY,
+    family_id UUID NOT NULL REFERENCES refresh_token_families(id) ON DELETE CASCADE,
+    expires_at TIMESTAMP NOT NULL,
+    used_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family_id ON refresh_tokens(family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens(expires_at);
+
+COMMENT ON TABLE refresh_token_families IS 'Cadeia de refresh tokens originada em um login; revogar a família invalida todos os tokens dela';
+COMMENT ON COLUMN refresh_token_families.revoked_at IS 'Preenchido no logout, no reset de senha ou ao detectar reuso de token';
+COMMENT ON TABLE refresh_tokens IS 'Refresh tokens emitidos, indexados pelo jti';
+COMMENT ON COLUMN refresh_tokens.used_at IS 'Momento da rotação; um token já usado apresentado de novo revoga a família';
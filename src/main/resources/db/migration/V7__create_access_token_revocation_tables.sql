@@ -0,0 +1,20 @@
+-- V7__create_access_token_revocation_tables.sql
+
+CREATE TABLE IF NOT EXISTS revoked_access_tokens (
+    jti UUID PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_access_tokens_expires_at ON revoked_access_tokens(expires_at);
+
+CREATE TABLE IF NOT EXISTS token_subject_cutoffs (
+    subject VARCHAR(255) PRIMARY KEY,
+    not_before TIMESTAMP NOT NULL
+);
+
+-- Usuários desabilitados recentemente entram na deny-list a cada recarga
+CREATE INDEX IF NOT EXISTS idx_users_disabled_updated_at ON users(updated_at) WHERE enabled = FALSE;
+
+COMMENT ON TABLE revoked_access_tokens IS 'Access tokens revogados antes de expirar (logout), pelo jti';
+COMMENT ON TABLE token_subject_cutoffs IS 'Tokens do usuário emitidos antes de not_before são recusados (ex.: após reset de senha)';
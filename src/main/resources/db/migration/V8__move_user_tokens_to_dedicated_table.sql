@@ -0,0 +1,39 @@
+-- V8__move_user_tokens_to_dedicated_table.sql
+
+-- Tokens de verificação de email e de reset de senha, um ativo por usuário e finalidade.
+-- Só o SHA-256 do token é gravado; o valor em claro existe apenas no email enviado.
+CREATE TABLE IF NOT EXISTS user_tokens (
+    token_hash BYTEA PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    purpose VARCHAR(30) NOT NULL CHECK (purpose IN ('EMAIL_VERIFICATION', 'PASSWORD_RESET')),
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_user_tokens_user_purpose UNIQUE (user_id, purpose)
+);
+
+-- B-tree, como em refresh_tokens: prazos de 1h e 7d se intercalam e cada reemissão
+-- reescreve a linha onde houver espaço, então as linhas não seguem a ordem de expiração
+CREATE INDEX IF NOT EXISTS idx_user_tokens_expires_at ON user_tokens(expires_at);
+
+-- Tokens pendentes nas colunas antigas; verificações nunca expiravam e ganham 7 dias
+INSERT INTO user_tokens (token_hash, user_id, purpose, expires_at)
+SELECT sha256(convert_to(verification_token, 'UTF8')), id, 'EMAIL_VERIFICATION', CURRENT_TIMESTAMP + INTERVAL '7 days'
+FROM users
+WHERE verification_token IS NOT NULL
+ON CONFLICT DO NOTHING;
+
+INSERT INTO user_tokens (token_hash, user_id, purpose, expires_at)
+SELECT sha256(convert_to(reset_password_token, 'UTF8')), id, 'PASSWORD_RESET', reset_password_expires
+FROM users
+WHERE reset_password_token IS NOT NULL AND reset_password_expires > CURRENT_TIMESTAMP
+ON CONFLICT DO NOTHING;
+
+ALTER TABLE users DROP COLUMN IF EXISTS verification_token;
+ALTER TABLE users DROP COLUMN IF EXISTS reset_password_token;
+ALTER TABLE users DROP COLUMN IF EXISTS reset_password_expires;
+
+-- Expirados saem em lotes pelo ExpiredTokenSweeper
+CREATE INDEX IF NOT EXISTS idx_refresh_token_families_created_at ON refresh_token_families USING BRIN (created_at);
+
+COMMENT ON TABLE user_tokens IS 'Tokens de uso único enviados por email (verificação e reset de senha)';
+COMMENT ON COLUMN user_tokens.token_hash IS 'SHA-256 do token enviado ao usuário';
@@ -0,0 +1,10 @@
+-- V9__index_users_by_lower_email.sql
+
+-- Todas as buscas por email comparam lower(email); este índice serve a elas e
+-- garante unicidade sem diferenciar maiúsculas. Falha se já houver emails que
+-- só diferem na caixa, que precisam ser resolvidos antes da migração.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_email_lower ON users (lower(email));
+
+-- Cobertos pelo índice acima: nenhuma consulta usa mais a comparação exata
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_email_key;
+DROP INDEX IF EXISTS idx_users_email;
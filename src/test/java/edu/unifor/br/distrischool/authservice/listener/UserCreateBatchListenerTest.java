@@ -0,0 +1,152 @@
+package edu.unifor.br.distrischool.authservice.listener;
+
+import edu.unifor.br.distrischool.authservice.dto.UserEvent;
+import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.repository.UserRepository;
+import edu.unifor.br.distrischool.authservice.security.BoundedPasswordEncoder;
+import edu.unifor.br.distrischool.authservice.service.EmailService;
+import edu.unifor.br.distrischool.authservice.service.KafkaEventService;
+import edu.unifor.br.distrischool.authservice.support.NoOpTransactionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserCreateBatchListenerTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final BoundedPasswordEncoder passwordEncoder = mock(BoundedPasswordEncoder.class);
+    private final EmailService emailService = mock(EmailService.class);
+    private final KafkaEventService kafkaEventService = mock(KafkaEventService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    /** E-mails gravados por transação confirmada; o rollback de uma falha não entra. */
+    private final List<String> committed = new ArrayList<>();
+    private final Set<String> rejectedOnInsert = new HashSet<>();
+
+    private UserCreateBatchListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new UserCreateBatchListener(userRepository, passwordEncoder, emailService, kafkaEventService,
+                eventPublisher, new NoOpTransactionManager());
+        when(passwordEncoder.encodeAll(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0)
+                .stream().map(raw -> "hash:" + raw).toList());
+        when(userRepository.findExistingEmails(any())).thenReturn(Set.of());
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            if (users.stream().anyMatch(user -> rejectedOnInsert.contains(user.getEmail()))) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            }
+            users.forEach(user -> committed.add(user.getEmail()));
+            return users;
+        });
+    }
+
+    @Test
+    void createsTheWholeBatchInOneInsert() {
+        listener.handleUserCreateBatch(List.of(event("a@unifor.br", "senha-a"), event("b@unifor.br", null)));
+
+        assertThat(committed).containsExactly("a@unifor.br", "b@unifor.br");
+        verify(userRepository).saveAll(anyList());
+        verify(emailService).sendTemporaryPasswordEmail("a@unifor.br", "senha-a");
+        verify(kafkaEventService, times(2)).publishUserEvent(eq("user.registered"), any(User.class));
+    }
+
+    @Test
+    void skipsExistingAndRepeatedEmailsIgnoringCase() {
+        when(userRepository.findExistingEmails(any())).thenReturn(Set.of("a@unifor.br"));
+
+        listener.handleUserCreateBatch(List.of(
+                event("A@unifor.br", null),
+                event("b@unifor.br", null),
+                event("B@UNIFOR.BR", null),
+                event("  ", null)));
+
+        assertThat(committed).containsExactly("b@unifor.br");
+    }
+
+    @Test
+    void failureOnRetryReportsTheIndexInTheReceivedBatch() {
+        rejectedOnInsert.add("d@unifor.br");
+
+        // Índices 1 e 2 não são criados, então a posição na lista de criação (2)
+        // difere da posição no lote recebido (4)
+        assertThatThrownBy(() -> listener.handleUserCreateBatch(List.of(
+                event("a@unifor.br", null),
+                event("a@unifor.br", null),
+                event("", null),
+                event("c@unifor.br", null),
+                event("d@unifor.br", null),
+                event("e@unifor.br", null))))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getIndex()).isEqualTo(4));
+
+        // Os anteriores ficam gravados e o offset deles é confirmado; os seguintes voltam no próximo poll
+        assertThat(committed).containsExactly("a@unifor.br", "c@unifor.br");
+    }
+
+    @Test
+    void recordCreatedConcurrentlyIsSkippedOnRetry() {
+        rejectedOnInsert.add("b@unifor.br");
+        when(userRepository.existsByEmail("b@unifor.br")).thenReturn(true);
+
+        listener.handleUserCreateBatch(List.of(
+                event("a@unifor.br", null),
+                event("b@unifor.br", null),
+                event("c@unifor.br", null)));
+
+        assertThat(committed).containsExactly("a@unifor.br", "c@unifor.br");
+    }
+
+    @Test
+    void unreadableRecordFailsAtItsIndexAfterTheOnesBeforeIt() {
+        assertThatThrownBy(() -> listener.handleUserCreateBatch(Arrays.asList(
+                event("a@unifor.br", null),
+                event("b@unifor.br", null),
+                null,
+                event("c@unifor.br", null))))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getIndex()).isEqualTo(2));
+
+        assertThat(committed).containsExactly("a@unifor.br", "b@unifor.br");
+    }
+
+    @Test
+    void unreadableFirstRecordTouchesNothing() {
+        assertThatThrownBy(() -> listener.handleUserCreateBatch(Arrays.asList(null, event("a@unifor.br", null))))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getIndex()).isZero());
+
+        verifyNoInteractions(userRepository, passwordEncoder);
+        verify(emailService, never()).sendTemporaryPasswordEmail(any(), any());
+    }
+
+    private static UserEvent event(String email, String password) {
+        return UserEvent.builder()
+                .eventType("user.create")
+                .email(email)
+                .name("Aluno")
+                .password(password)
+                .build();
+    }
+}
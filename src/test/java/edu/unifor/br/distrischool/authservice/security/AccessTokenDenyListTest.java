@@ -0,0 +1,157 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import edu.unifor.br.distrischool.authservice.repository.TokenRevocationRepository;
+import edu.unifor.br.distrischool.authservice.service.VerifiedToken;
+import edu.unifor.br.distrischool.authservice.support.NoOpTransactionManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class AccessTokenDenyListTest {
+
+    private static final String SUBJECT = "aluno@unifor.br";
+
+    private final TokenRevocationRepository repository = mock(TokenRevocationRepository.class);
+    private final TransactionTemplate transaction = NoOpTransactionManager.template();
+
+    private Map<UUID, Instant> storedTokens = Map.of();
+    private Map<String, Instant> storedCutoffs = Map.of();
+    private List<String> disabledSubjects = List.of();
+
+    private AccessTokenDenyList denyList;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            BiConsumer<UUID, Instant> consumer = invocation.getArgument(1);
+            storedTokens.forEach(consumer);
+            return null;
+        }).when(repository).forEachRevokedToken(any(), any());
+        doAnswer(invocation -> {
+            BiConsumer<String, Instant> consumer = invocation.getArgument(1);
+            storedCutoffs.forEach(consumer);
+            return null;
+        }).when(repository).forEachSubjectCutoff(any(), any());
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(1);
+            disabledSubjects.forEach(consumer);
+            return null;
+        }).when(repository).forEachDisabledSubject(any(), any());
+
+        denyList = new AccessTokenDenyList(repository, new SimpleMeterRegistry(), 3_600_000L);
+    }
+
+    @Test
+    void loggedOutTokenIsRejectedOnlyAfterTheCommit() {
+        VerifiedToken token = accessToken(Instant.now());
+
+        transaction.executeWithoutResult(status -> {
+            denyList.revoke(token);
+            assertThat(denyList.isRevoked(token)).isFalse();
+        });
+
+        assertThat(denyList.isRevoked(token)).isTrue();
+        assertThat(denyList.isRevoked(accessToken(Instant.now()))).isFalse();
+    }
+
+    @Test
+    void rolledBackLogoutIsNotAppliedInMemory() {
+        VerifiedToken token = accessToken(Instant.now());
+
+        transaction.executeWithoutResult(status -> {
+            denyList.revoke(token);
+            status.setRollbackOnly();
+        });
+
+        assertThat(denyList.isRevoked(token)).isFalse();
+    }
+
+    @Test
+    void rebuildLoadsRevocationsFromOtherInstances() {
+        VerifiedToken token = accessToken(Instant.now());
+        storedTokens = Map.of(UUID.fromString(token.id()), token.expiresAt());
+        storedCutoffs = Map.of("professor@unifor.br", Instant.now().plusSeconds(1));
+
+        denyList.rebuild();
+
+        assertThat(denyList.isRevoked(token)).isTrue();
+        assertThat(denyList.isRevoked(accessToken("professor@unifor.br", Instant.now()))).isTrue();
+    }
+
+    @Test
+    void rebuildKeepsLocalRevocationsTheReadDidNotSee() {
+        VerifiedToken token = accessToken(Instant.now());
+        transaction.executeWithoutResult(status -> denyList.revoke(token));
+
+        denyList.rebuild();
+
+        assertThat(denyList.isRevoked(token)).isTrue();
+    }
+
+    @Test
+    void rebuildDropsLocalRevocationsOfExpiredTokens() {
+        VerifiedToken expired = new VerifiedToken(SUBJECT, List.of(), Instant.now().minusSeconds(1),
+                Instant.now().minusSeconds(3600), UUID.randomUUID().toString(), "access", null);
+        transaction.executeWithoutResult(status -> denyList.revoke(expired));
+        assertThat(denyList.isRevoked(expired)).isTrue();
+
+        denyList.rebuild();
+
+        assertThat(denyList.isRevoked(expired)).isFalse();
+    }
+
+    @Test
+    void subjectCutoffRejectsOlderTokensButNotOnesIssuedAfterIt() {
+        transaction.executeWithoutResult(status -> denyList.revokeSubject(SUBJECT));
+
+        assertThat(denyList.isRevoked(accessToken(Instant.now().minusSeconds(10)))).isTrue();
+        assertThat(denyList.isRevoked(accessToken(Instant.now().plusSeconds(1)))).isFalse();
+        assertThat(denyList.isRevoked(accessToken("professor@unifor.br", Instant.now().minusSeconds(10)))).isFalse();
+    }
+
+    @Test
+    void rebuildKeepsTheLaterOfTheLocalAndStoredCutoffs() {
+        Instant now = Instant.now();
+        storedCutoffs = Map.of(SUBJECT, now.minusSeconds(60));
+        transaction.executeWithoutResult(status -> denyList.revokeSubject(SUBJECT));
+
+        denyList.rebuild();
+
+        assertThat(denyList.isRevoked(accessToken(now.minusSeconds(10)))).isTrue();
+    }
+
+    @Test
+    void disabledUserIsRejectedUntilTheDatabaseStopsReportingIt() {
+        disabledSubjects = List.of(SUBJECT);
+        denyList.rebuild();
+        assertThat(denyList.isRevoked(accessToken(Instant.now().plusSeconds(60)))).isTrue();
+
+        // Reabilitado: o corte de desabilitado não é herdado do snapshot anterior
+        disabledSubjects = List.of();
+        denyList.rebuild();
+
+        assertThat(denyList.isRevoked(accessToken(Instant.now()))).isFalse();
+    }
+
+    private static VerifiedToken accessToken(Instant issuedAt) {
+        return accessToken(SUBJECT, issuedAt);
+    }
+
+    private static VerifiedToken accessToken(String subject, Instant issuedAt) {
+        return new VerifiedToken(subject, List.of("STUDENT"), Instant.now().plusSeconds(3600), issuedAt,
+                UUID.randomUUID().toString(), "access", null);
+    }
+}
@@ -0,0 +1,99 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import edu.unifor.br.distrischool.authservice.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AuthRateLimiter limiter = new AuthRateLimiter(new InMemoryRateLimitStore(), meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "loginIpLimit", 3);
+        ReflectionTestUtils.setField(limiter, "loginIpWindow", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(limiter, "loginAccountLimit", 2);
+        ReflectionTestUtils.setField(limiter, "loginAccountWindow", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(limiter, "resetIpLimit", 20);
+        ReflectionTestUtils.setField(limiter, "resetIpWindow", Duration.ofHours(1));
+        ReflectionTestUtils.setField(limiter, "resetAccountLimit", 1);
+        ReflectionTestUtils.setField(limiter, "resetAccountWindow", Duration.ofHours(1));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("203.0.113.7");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void allFourRejectionCountersExistBeforeAnyRejection() {
+        assertThat(meterRegistry.find("auth.ratelimit.rejected").counters()).hasSize(4);
+    }
+
+    @Test
+    void accountLimitIgnoresCaseAndSurroundingSpaces() {
+        limiter.checkLogin("aluno@unifor.br");
+        limiter.checkLogin(" Aluno@Unifor.br ");
+
+        assertThatThrownBy(() -> limiter.checkLogin("ALUNO@UNIFOR.BR"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(rejected("login", "account")).isEqualTo(1);
+        assertThat(rejected("login", "ip")).isZero();
+    }
+
+    @Test
+    void ipLimitCoversManyAccounts() {
+        limiter.checkLogin("a@unifor.br");
+        limiter.checkLogin("b@unifor.br");
+        limiter.checkLogin("c@unifor.br");
+
+        for (int i = 0; i < 3; i++) {
+            String email = "d" + i + "@unifor.br";
+            assertThatThrownBy(() -> limiter.checkLogin(email)).isInstanceOf(TooManyRequestsException.class);
+        }
+        assertThat(rejected("login", "ip")).isEqualTo(3);
+    }
+
+    @Test
+    void successfulLoginClearsTheAccountCounter() {
+        limiter.checkLogin("aluno@unifor.br");
+        limiter.checkLogin("aluno@unifor.br");
+
+        limiter.loginSucceeded("aluno@unifor.br");
+
+        limiter.checkLogin("aluno@unifor.br");
+        assertThat(rejected("login", "account")).isZero();
+    }
+
+    @Test
+    void passwordResetHasItsOwnLimits() {
+        limiter.checkLogin("aluno@unifor.br");
+        limiter.checkPasswordReset("aluno@unifor.br");
+
+        assertThatThrownBy(() -> limiter.checkPasswordReset("aluno@unifor.br"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(rejected("password-reset", "account")).isEqualTo(1);
+    }
+
+    private double rejected(String operation, String scope) {
+        return meterRegistry.get("auth.ratelimit.rejected").tag("operation", operation).tag("scope", scope)
+                .counter().count();
+    }
+}
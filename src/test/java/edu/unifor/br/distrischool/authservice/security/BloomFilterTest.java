@@ -0,0 +1,67 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverReportsAnInsertedValueAsAbsent() {
+        BloomFilter bloom = BloomFilter.create(10_000, 0.01);
+        List<UUID> inserted = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID value = UUID.randomUUID();
+            bloom.put(value);
+            inserted.add(value);
+        }
+
+        assertThat(inserted).allMatch(bloom::mightContain);
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTargetAtCapacity() {
+        BloomFilter bloom = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloom.put(UUID.randomUUID());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (bloom.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void spreadsUuidsThatDifferOnlyInOneHalf() {
+        BloomFilter bloom = BloomFilter.create(1_000, 0.01);
+        for (long i = 0; i < 1_000; i++) {
+            bloom.put(new UUID(42L, i));
+        }
+
+        int falsePositives = 0;
+        for (long i = 1_000; i < 11_000; i++) {
+            if (bloom.mightContain(new UUID(42L, i))) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 10_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void emptyFilterStillHasTheMinimumSizeAndContainsNothing() {
+        BloomFilter bloom = BloomFilter.create(0, 0.01);
+
+        assertThat(bloom.bitSize()).isGreaterThanOrEqualTo(1024);
+        assertThat(bloom.mightContain(UUID.randomUUID())).isFalse();
+    }
+}
@@ -0,0 +1,34 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaffeineUserCacheTest {
+
+    private final CaffeineUserCache cache = new CaffeineUserCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+
+    private final UserDetails user = User.withUsername("aluno@unifor.br").password("x").roles("STUDENT").build();
+
+    @Test
+    void findsTheUserWhateverTheCasingOfTheLogin() {
+        cache.putUserInCache(user);
+
+        assertThat(cache.getUserFromCache("Aluno@Unifor.BR")).isSameAs(user);
+        assertThat(cache.getUserFromCache(" aluno@unifor.br ")).isSameAs(user);
+    }
+
+    @Test
+    void invalidationIgnoresCasing() {
+        cache.putUserInCache(user);
+
+        cache.removeUserFromCache("ALUNO@UNIFOR.BR");
+
+        assertThat(cache.getUserFromCache("aluno@unifor.br")).isNull();
+    }
+}
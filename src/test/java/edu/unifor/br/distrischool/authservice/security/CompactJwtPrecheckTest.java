@@ -0,0 +1,100 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactJwtPrecheckTest {
+
+    private static final String PAYLOAD = "eyJzdWIiOiJhbHVub0B1bmlmb3IuYnIifQ";
+    private static final String SIGNATURE = "c2lnbmF0dXJl";
+
+    @Test
+    void readsTheAlgorithmOfAWellFormedToken() {
+        assertThat(CompactJwtPrecheck.algorithm(jws("{\"alg\":\"RS256\",\"kid\":\"k1\"}"), 0)).isEqualTo("RS256");
+    }
+
+    @Test
+    void toleratesWhitespaceAroundTheColon() {
+        assertThat(CompactJwtPrecheck.algorithm(jws("{ \"typ\" : \"JWT\",\n \"alg\" : \"HS512\" }"), 0)).isEqualTo("HS512");
+    }
+
+    @Test
+    void startsAtTheGivenOffset() {
+        String header = "Bearer " + jws("{\"alg\":\"ES256\"}");
+
+        assertThat(CompactJwtPrecheck.algorithm(header, "Bearer ".length())).isEqualTo("ES256");
+        assertThat(CompactJwtPrecheck.algorithm(header, 0)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "abcd",
+            "eyJhbGciOiJIUzI1NiJ9",
+            "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ4In0",
+            "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ4In0.c2ln.ZXh0cmE",
+            ".eyJzdWIiOiJ4In0.c2ln",
+            "eyJhbGciOiJIUzI1NiJ9..c2ln",
+            "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ4In0.",
+            "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ4In0.c2ln=",
+            "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ4In0.c2l+",
+            "eyJhbGciOiJIUzI1NiJ9.eyJzdWIi OiJ4In0.c2ln",
+            "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ4In0.c2lñ"
+    })
+    void rejectsValuesThatAreNotThreeNonEmptyBase64UrlSegments(String value) {
+        assertThat(CompactJwtPrecheck.algorithm(value, 0)).isNull();
+    }
+
+    @Test
+    void rejectsAHeaderWithoutAlg() {
+        assertThat(CompactJwtPrecheck.algorithm(jws("{\"typ\":\"JWT\"}"), 0)).isNull();
+    }
+
+    @Test
+    void rejectsANonStringAlg() {
+        assertThat(CompactJwtPrecheck.algorithm(jws("{\"alg\":null}"), 0)).isNull();
+        assertThat(CompactJwtPrecheck.algorithm(jws("{\"alg\":256}"), 0)).isNull();
+    }
+
+    @Test
+    void returnsNoneSoTheCallerCanRejectIt() {
+        // O algoritmo é devolvido como está; quem chama confere contra os aceitos
+        assertThat(CompactJwtPrecheck.algorithm(jws("{\"alg\":\"none\"}"), 0)).isEqualTo("none");
+    }
+
+    @Test
+    void rejectsAnUnsignedToken() {
+        String unsigned = base64Url("{\"alg\":\"none\"}") + "." + PAYLOAD + ".";
+
+        assertThat(CompactJwtPrecheck.algorithm(unsigned, 0)).isNull();
+    }
+
+    @Test
+    void rejectsAHeaderThatIsNotValidBase64() {
+        // 4n+1 caracteres não decodificam para bytes inteiros
+        assertThat(CompactJwtPrecheck.algorithm("eyJhb." + PAYLOAD + "." + SIGNATURE, 0)).isNull();
+    }
+
+    @Test
+    void rejectsOversizedTokensAndHeaders() {
+        String longSignature = "A".repeat(CompactJwtPrecheck.MAX_LENGTH);
+        String padding = "x".repeat(CompactJwtPrecheck.MAX_HEADER_LENGTH);
+
+        assertThat(CompactJwtPrecheck.algorithm(jws("{\"alg\":\"RS256\"}") + longSignature, 0)).isNull();
+        assertThat(CompactJwtPrecheck.algorithm(jws("{\"alg\":\"RS256\",\"pad\":\"" + padding + "\"}"), 0)).isNull();
+    }
+
+    private static String jws(String headerJson) {
+        return base64Url(headerJson) + "." + PAYLOAD + "." + SIGNATURE;
+    }
+
+    private static String base64Url(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
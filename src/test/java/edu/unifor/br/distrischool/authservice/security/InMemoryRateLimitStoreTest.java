@@ -0,0 +1,109 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import edu.unifor.br.distrischool.authservice.support.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimitStoreTest {
+
+    private static final String KEY = "login:aluno@unifor.br";
+    private static final Duration WINDOW = Duration.ofSeconds(1);
+
+    private final MutableClock clock = new MutableClock(Instant.ofEpochMilli(1_700_000_000_000L));
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore(clock);
+
+    @Test
+    void acceptsUpToTheLimitWithinTheWindow() {
+        assertThat(acquire()).isZero();
+        assertThat(acquire()).isZero();
+        assertThat(acquire()).isZero();
+
+        assertThat(acquire()).isPositive();
+    }
+
+    @Test
+    void fullCurrentWindowWaitsForItToRollOverAndLoseWeight() {
+        acquire();
+        acquire();
+        acquire();
+
+        // Com 3 na janela anterior, a estimativa só cabe mais uma quando o peso cair para 2/3
+        assertThat(acquire()).isEqualTo(Duration.ofMillis(1334));
+
+        clock.advance(Duration.ofMillis(1333));
+        assertThat(acquire()).isPositive();
+        clock.advance(Duration.ofMillis(1));
+        assertThat(acquire()).isZero();
+    }
+
+    @Test
+    void previousWindowAloneDecidesWhenTheCurrentOneHasRoom() {
+        acquire();
+        acquire();
+        acquire();
+        clock.advance(Duration.ofMillis(1500));
+        // 3 × 0,5 da anterior + 1 da atual
+        assertThat(acquire()).isZero();
+
+        assertThat(acquire()).isEqualTo(Duration.ofMillis(167));
+
+        clock.advance(Duration.ofMillis(166));
+        assertThat(acquire()).isPositive();
+        clock.advance(Duration.ofMillis(1));
+        assertThat(acquire()).isZero();
+    }
+
+    @Test
+    void retryAfterIsNeverZeroForARejectedAttempt() {
+        acquire();
+        acquire();
+        acquire();
+        clock.advance(Duration.ofMillis(1333));
+
+        assertThat(acquire()).isEqualTo(Duration.ofMillis(1));
+    }
+
+    @Test
+    void twoIdleWindowsForgetEverything() {
+        acquire();
+        acquire();
+        acquire();
+
+        clock.advance(Duration.ofMillis(2000));
+
+        assertThat(acquire()).isZero();
+        assertThat(acquire()).isZero();
+        assertThat(acquire()).isZero();
+    }
+
+    @Test
+    void resetClearsTheKey() {
+        acquire();
+        acquire();
+        acquire();
+
+        store.reset(KEY);
+
+        assertThat(acquire()).isZero();
+    }
+
+    @Test
+    void evictsOnlyKeysIdleForTwoWindows() {
+        acquire();
+        clock.advance(Duration.ofMillis(1500));
+        store.tryAcquire("login:professor@unifor.br", 3, WINDOW);
+
+        clock.advance(Duration.ofMillis(500));
+        store.evictExpired();
+
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    private Duration acquire() {
+        return store.tryAcquire(KEY, 3, WINDOW);
+    }
+}
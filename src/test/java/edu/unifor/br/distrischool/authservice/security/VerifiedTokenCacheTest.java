@@ -0,0 +1,145 @@
+package edu.unifor.br.distrischool.authservice.security;
+
+import edu.unifor.br.distrischool.authservice.security.VerifiedTokenCache.CachedAuthentication;
+import edu.unifor.br.distrischool.authservice.service.VerifiedToken;
+import edu.unifor.br.distrischool.authservice.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static final String SUBJECT = "aluno@unifor.br";
+
+    private final AtomicInteger verifications = new AtomicInteger();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-10T14:00:00Z"));
+
+    @Test
+    void verifiesEachTokenOnlyOnce() {
+        VerifiedTokenCache cache = cache(Duration.ofMinutes(5));
+        Function<String, CachedAuthentication> authenticate = authenticating(clock.instant().plusSeconds(3600));
+
+        CachedAuthentication first = cache.get("token-a", authenticate);
+        CachedAuthentication second = cache.get("token-a", authenticate);
+        cache.get("token-b", authenticate);
+
+        assertThat(second).isSameAs(first);
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void entryLastsNoLongerThanTheTtl() {
+        VerifiedTokenCache cache = cache(Duration.ofMinutes(5));
+        Function<String, CachedAuthentication> authenticate = authenticating(clock.instant().plusSeconds(3600));
+
+        cache.get("token", authenticate);
+        clock.advance(Duration.ofMinutes(5).minusSeconds(1));
+        cache.get("token", authenticate);
+        assertThat(verifications).hasValue(1);
+
+        clock.advance(Duration.ofSeconds(1));
+        cache.get("token", authenticate);
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void entryLastsNoLongerThanTheTokenItself() {
+        VerifiedTokenCache cache = cache(Duration.ofMinutes(5));
+        Function<String, CachedAuthentication> authenticate = authenticating(clock.instant().plusSeconds(30));
+
+        cache.get("token", authenticate);
+        clock.advance(Duration.ofSeconds(29));
+        assertThat(cache.getIfPresent("token")).isNotNull();
+
+        clock.advance(Duration.ofSeconds(1));
+
+        assertThat(cache.getIfPresent("token")).isNull();
+    }
+
+    @Test
+    void alreadyExpiredTokenIsNeverServedFromTheCache() {
+        VerifiedTokenCache cache = cache(Duration.ofMinutes(5));
+        Function<String, CachedAuthentication> authenticate = authenticating(clock.instant().minusSeconds(1));
+
+        cache.get("token", authenticate);
+
+        assertThat(cache.getIfPresent("token")).isNull();
+    }
+
+    @Test
+    void userChangeDiscardsEntriesCachedBeforeIt() {
+        VerifiedTokenCache cache = cache(Duration.ofMinutes(5));
+        Function<String, CachedAuthentication> authenticate = authenticating(clock.instant().plusSeconds(3600));
+        cache.get("token", authenticate);
+
+        cache.invalidateSubject(SUBJECT);
+
+        assertThat(cache.getIfPresent("token")).isNull();
+        // Uma entrada do mesmo instante da alteração também é descartada
+        clock.advance(Duration.ofMillis(1));
+        cache.get("token", authenticate);
+        assertThat(verifications).hasValue(2);
+
+        // A entrada recolocada depois da alteração volta a valer
+        assertThat(cache.getIfPresent("token")).isNotNull();
+    }
+
+    @Test
+    void userChangeKeepsOtherUsersEntries() {
+        VerifiedTokenCache cache = cache(Duration.ofMinutes(5));
+        cache.get("token", authenticating(clock.instant().plusSeconds(3600)));
+
+        cache.invalidateSubject("professor@unifor.br");
+
+        assertThat(cache.getIfPresent("token")).isNotNull();
+    }
+
+    @Test
+    void tokensThatDoNotAuthenticateAreNotCached() {
+        VerifiedTokenCache cache = cache(Duration.ofMinutes(5));
+        Function<String, CachedAuthentication> rejecting = jwt -> {
+            verifications.incrementAndGet();
+            return null;
+        };
+
+        assertThat(cache.get("token", rejecting)).isNull();
+        assertThat(cache.get("token", rejecting)).isNull();
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void disabledCacheVerifiesEveryTime() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(new SimpleMeterRegistry(), false, 100, Duration.ofMinutes(5),
+                clock.ticker(), clock);
+        Function<String, CachedAuthentication> authenticate = authenticating(clock.instant().plusSeconds(3600));
+
+        cache.get("token", authenticate);
+        cache.get("token", authenticate);
+
+        assertThat(verifications).hasValue(2);
+        assertThat(cache.getIfPresent("token")).isNull();
+    }
+
+    private VerifiedTokenCache cache(Duration ttl) {
+        return new VerifiedTokenCache(new SimpleMeterRegistry(), true, 100, ttl, clock.ticker(), clock);
+    }
+
+    private Function<String, CachedAuthentication> authenticating(Instant expiresAt) {
+        return jwt -> {
+            verifications.incrementAndGet();
+            VerifiedToken token = new VerifiedToken(SUBJECT, List.of("STUDENT"), expiresAt, clock.instant(),
+                    UUID.randomUUID().toString(), "access", null);
+            return new CachedAuthentication(token, SUBJECT, List.of());
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package edu.unifor.br.distrischool.authservice.serialization;
+
+import edu.unifor.br.distrischool.authservice.dto.UserEvent;
+import edu.unifor.br.distrischool.authservice.entity.User;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserEventDeserializerTest {
+
+    private static final String TOPIC = "user.create";
+
+    private final UserEventDeserializer deserializer = new UserEventDeserializer();
+
+    private final UserEvent event = UserEvent.builder()
+            .eventType("user.create")
+            .userId(7L)
+            .email("aluno@unifor.br")
+            .name("Aluno")
+            .role(User.Role.STUDENT)
+            .timestamp("2026-03-10T14:00:00")
+            .build();
+
+    @Test
+    void readsAvroByItsMagicByte() {
+        byte[] avro = new UserEventAvroSerializer().serialize(TOPIC, event);
+
+        assertThat(avro[0]).isEqualTo(UserEventAvroSerializer.MAGIC_BYTE);
+        assertThat(deserializer.deserialize(TOPIC, avro)).isEqualTo(event);
+    }
+
+    @Test
+    void readsJsonFromTheSameDeserializer() {
+        try (JsonSerializer<UserEvent> json = new JsonSerializer<>()) {
+            json.setAddTypeInfo(false);
+
+            assertThat(deserializer.deserialize(TOPIC, json.serialize(TOPIC, event))).isEqualTo(event);
+        }
+    }
+
+    @Test
+    void readsJsonWithUnknownFieldsAndMissingOnes() {
+        byte[] json = "{\"eventType\":\"user.create\",\"email\":\"aluno@unifor.br\",\"extra\":true}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        UserEvent read = deserializer.deserialize(TOPIC, json);
+
+        assertThat(read.getEmail()).isEqualTo("aluno@unifor.br");
+        assertThat(read.getUserId()).isNull();
+    }
+
+    @Test
+    void nullRecordStaysNull() {
+        assertThat(deserializer.deserialize(TOPIC, (byte[]) null)).isNull();
+    }
+
+    @Test
+    void rejectsTruncatedAvro() {
+        byte[] avro = new UserEventAvroSerializer().serialize(TOPIC, event);
+
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, Arrays.copyOf(avro, 3)))
+                .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, Arrays.copyOf(avro, avro.length - 5)))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void rejectsAvroWithAnUnknownSchemaVersion() {
+        byte[] avro = new UserEventAvroSerializer().serialize(TOPIC, event);
+        ByteBuffer.wrap(avro).putInt(1, 999);
+
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, avro))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("v999");
+    }
+
+    @Test
+    void garbageThatIsNotAvroFailsAsJson() {
+        byte[] garbage = {0x7, 0x0, 0x1};
+
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, garbage))
+                .isInstanceOf(SerializationException.class);
+    }
+}
@@ -0,0 +1,73 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import edu.unifor.br.distrischool.authservice.entity.MailType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class EmailServiceTest {
+
+    private final MailDispatcher mailDispatcher = mock(MailDispatcher.class);
+
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        emailService = new EmailService(mailDispatcher);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@distrischool.com");
+        ReflectionTestUtils.setField(emailService, "frontendUrl", "http://localhost:3000");
+        ReflectionTestUtils.setField(emailService, "mailEnabled", true);
+        ReflectionTestUtils.setField(emailService, "emailVerificationTtl", Duration.ofDays(7));
+        ReflectionTestUtils.setField(emailService, "passwordResetTtl", Duration.ofMinutes(30));
+    }
+
+    @Test
+    void verificationEmailStatesTheConfiguredLifetime() {
+        emailService.sendVerificationEmail("aluno@unifor.br", "token");
+
+        assertThat(sent(MailType.EMAIL_VERIFICATION).getText()).contains("Este link expira em 7 dias.");
+    }
+
+    @Test
+    void resetAndAccountCreatedEmailsStateTheResetLifetime() {
+        emailService.sendPasswordResetEmail("aluno@unifor.br", "token");
+        emailService.sendAccountCreatedEmail("aluno@unifor.br", "token", 1, LocalDateTime.now());
+
+        assertThat(sent(MailType.PASSWORD_RESET).getText()).contains("Este link expira em 30 minutos.");
+        assertThat(sent(MailType.ACCOUNT_CREATED).getText()).contains("Este link expira em 30 minutos.");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "P7D, 7 dias",
+            "PT24H, 1 dia",
+            "PT1H, 1 hora",
+            "PT36H, 36 horas",
+            "PT90M, 90 minutos",
+            "PT1M, 1 minuto",
+            "PT30S, 1 minuto"
+    })
+    void describesDurationsInTheLargestExactUnit(String duration, String expected) {
+        assertThat(EmailService.describe(Duration.parse(duration))).isEqualTo(expected);
+    }
+
+    private SimpleMailMessage sent(MailType type) {
+        ArgumentCaptor<SimpleMailMessage> message = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailDispatcher).dispatchAfterCommit(message.capture(), eq(type), anyInt(), any());
+        return message.getValue();
+    }
+}
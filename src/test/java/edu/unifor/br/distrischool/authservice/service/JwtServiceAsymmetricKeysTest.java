@@ -0,0 +1,158 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceAsymmetricKeysTest {
+
+    private static final String SECRET = "test-secret-with-at-least-64-bytes-for-hs512-signatures-0123456789";
+    private static final Pattern KID = Pattern.compile("\"kid\":\"([^\"]+)\"");
+
+    private final UserDetails user = User.withUsername("aluno@unifor.br").password("x").roles("STUDENT").build();
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @CsvSource({"RS256, RSA", "ES256, EC", "EdDSA, Ed25519"})
+    void loadsPemKeysAndVerifiesItsOwnTokens(String algorithm, String keyType) throws Exception {
+        KeyPair keys = generate(keyType);
+        JwtService service = service(algorithm, keys, null);
+
+        String token = service.generateToken(user);
+
+        assertThat(service.verify(token).subject()).isEqualTo("aluno@unifor.br");
+        assertThat(kid(header(token))).isNotBlank();
+    }
+
+    @Test
+    void tokenKidMatchesThePublishedKey() throws Exception {
+        JwtService service = service("RS256", generate("RSA"), null);
+
+        String token = service.generateToken(user);
+        String jwks = service.getJwkSet().json();
+
+        assertThat(header(token)).contains("\"alg\":\"RS256\"");
+        assertThat(jwks)
+                .contains("\"kid\":\"" + kid(header(token)) + "\"")
+                .contains("\"kty\":\"RSA\"", "\"use\":\"sig\"", "\"alg\":\"RS256\"")
+                .doesNotContain("\"d\":", "\"p\":", "\"q\":");
+        assertThat(service.getJwkSet().etag()).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void acceptsRetiredKeysAndPublishesThemAlongsideTheCurrentOne() throws Exception {
+        KeyPair old = generate("RSA");
+        JwtService before = service("RS256", old, null);
+        String oldToken = before.generateToken(user);
+
+        JwtService after = service("RS256", generate("RSA"), null, writePublic(old, "retired.pem"));
+        String newToken = after.generateToken(user);
+
+        assertThat(after.verify(oldToken).subject()).isEqualTo("aluno@unifor.br");
+        assertThat(kid(header(newToken))).isNotEqualTo(kid(header(oldToken)));
+        assertThat(after.getJwkSet().json())
+                .contains(kid(header(oldToken)), kid(header(newToken)));
+        assertThat(after.getJwkSet().etag()).isNotEqualTo(before.getJwkSet().etag());
+
+        // A instância antiga não conhece o kid novo
+        assertThatThrownBy(() -> before.verify(newToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void acceptsLegacyHmacTokensOnlyWhileTheSecretIsConfigured() throws Exception {
+        String hmacToken = hmacService().generateToken(user);
+        KeyPair keys = generate("RSA");
+
+        assertThat(service("RS256", keys, SECRET).verify(hmacToken).subject()).isEqualTo("aluno@unifor.br");
+        assertThatThrownBy(() -> service("RS256", keys, null).verify(hmacToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void hmacPublishesAnEmptyKeySet() {
+        assertThat(hmacService().getJwkSet().json()).isEqualTo("{\"keys\":[]}");
+    }
+
+    private JwtService service(String algorithm, KeyPair keys, String secret, String... retired) throws IOException {
+        JwtService service = newService(algorithm, secret);
+        ReflectionTestUtils.setField(service, "privateKeyLocation", writePrivate(keys));
+        ReflectionTestUtils.setField(service, "publicKeyLocation", writePublic(keys, "public-" + System.nanoTime() + ".pem"));
+        ReflectionTestUtils.setField(service, "retiredPublicKeyLocations", retired);
+        service.init();
+        return service;
+    }
+
+    private JwtService hmacService() {
+        JwtService service = newService("HMAC", SECRET);
+        ReflectionTestUtils.setField(service, "retiredPublicKeyLocations", new String[0]);
+        service.init();
+        return service;
+    }
+
+    private static JwtService newService(String algorithm, String secret) {
+        JwtService service = new JwtService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "algorithm", algorithm);
+        ReflectionTestUtils.setField(service, "secret", secret == null ? "" : secret);
+        ReflectionTestUtils.setField(service, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(service, "refreshExpiration", 86_400_000L);
+        return service;
+    }
+
+    private static KeyPair generate(String type) throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(type);
+        if ("EC".equals(type)) {
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+        } else if ("RSA".equals(type)) {
+            generator.initialize(2048);
+        }
+        return generator.generateKeyPair();
+    }
+
+    private String writePrivate(KeyPair keys) throws IOException {
+        return write("private-" + System.nanoTime() + ".pem", "PRIVATE KEY", keys.getPrivate().getEncoded());
+    }
+
+    private String writePublic(KeyPair keys, String name) throws IOException {
+        return write(name, "PUBLIC KEY", keys.getPublic().getEncoded());
+    }
+
+    private String write(String name, String type, byte[] der) throws IOException {
+        String pem = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+        Path file = dir.resolve(name);
+        Files.writeString(file, pem, StandardCharsets.US_ASCII);
+        return file.toUri().toString();
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+
+    private static String kid(String json) {
+        Matcher matcher = KID.matcher(json);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+}
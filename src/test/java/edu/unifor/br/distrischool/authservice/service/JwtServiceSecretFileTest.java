@@ -0,0 +1,104 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceSecretFileTest {
+
+    private static final String FIRST = "first-secret-with-at-least-64-bytes-for-hs512-signatures-0123456789";
+    private static final String SECOND = "second-secret-with-at-least-64-bytes-for-hs512-signatures-012345678";
+    private static final String THIRD = "third-secret-with-at-least-64-bytes-for-hs512-signatures-0123456789";
+
+    private final UserDetails user = User.withUsername("aluno@unifor.br").password("x").roles("STUDENT").build();
+
+    @TempDir
+    Path dir;
+
+    private Path secretFile;
+    private JwtService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        secretFile = dir.resolve("jwt-secret");
+        Files.writeString(secretFile, FIRST + "\n");
+
+        service = new JwtService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "algorithm", "HMAC");
+        ReflectionTestUtils.setField(service, "secret", "ignored-when-the-file-is-configured");
+        ReflectionTestUtils.setField(service, "secretFile", secretFile.toString());
+        ReflectionTestUtils.setField(service, "retiredPublicKeyLocations", new String[0]);
+        ReflectionTestUtils.setField(service, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(service, "refreshExpiration", 86_400_000L);
+        service.init();
+    }
+
+    @Test
+    void readsTheSecretFromTheFileAndKeepsItWhileUnchanged() {
+        String token = service.generateToken(user);
+
+        service.reloadSecretFile();
+
+        assertThat(hmacOnly(FIRST).verify(token).subject()).isEqualTo("aluno@unifor.br");
+        assertThat(hmacOnly(FIRST).verify(service.generateToken(user)).subject()).isEqualTo("aluno@unifor.br");
+    }
+
+    @Test
+    void changedFileRotatesAndStillAcceptsTokensSignedBeforeIt() throws IOException {
+        String before = service.generateToken(user);
+
+        Files.writeString(secretFile, SECOND);
+        service.reloadSecretFile();
+        String after = service.generateToken(user);
+
+        assertThat(service.verify(before).subject()).isEqualTo("aluno@unifor.br");
+        assertThat(service.verify(after).subject()).isEqualTo("aluno@unifor.br");
+        assertThat(hmacOnly(SECOND).verify(after).subject()).isEqualTo("aluno@unifor.br");
+        assertThatThrownBy(() -> hmacOnly(FIRST).verify(after)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void onlyTheSecretBeforeTheLastRotationIsKept() throws IOException {
+        String first = service.generateToken(user);
+
+        Files.writeString(secretFile, SECOND);
+        service.reloadSecretFile();
+        Files.writeString(secretFile, THIRD);
+        service.reloadSecretFile();
+
+        assertThatThrownBy(() -> service.verify(first)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void unreadableFileKeepsTheCurrentSecret() throws IOException {
+        Files.delete(secretFile);
+
+        service.reloadSecretFile();
+
+        assertThat(hmacOnly(FIRST).verify(service.generateToken(user)).subject()).isEqualTo("aluno@unifor.br");
+    }
+
+    private static JwtService hmacOnly(String secret) {
+        JwtService service = new JwtService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "algorithm", "HMAC");
+        ReflectionTestUtils.setField(service, "secret", secret);
+        ReflectionTestUtils.setField(service, "secretFile", "");
+        ReflectionTestUtils.setField(service, "retiredPublicKeyLocations", new String[0]);
+        ReflectionTestUtils.setField(service, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(service, "refreshExpiration", 86_400_000L);
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,132 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import edu.unifor.br.distrischool.authservice.repository.LastLoginRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class LastLoginRecorderTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 10, 14, 0);
+
+    private final LastLoginRepository repository = mock(LastLoginRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<Map.Entry<Long, LocalDateTime>>> writes = new ArrayList<>();
+
+    private LastLoginRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new LastLoginRecorder(repository, meterRegistry);
+        ReflectionTestUtils.setField(recorder, "batchSize", 500);
+        doAnswer(invocation -> {
+            // O recorder reaproveita a lista depois da gravação
+            writes.add(List.copyOf(invocation.<List<Map.Entry<Long, LocalDateTime>>>getArgument(0)));
+            return null;
+        }).when(repository).updateLastLogins(any());
+    }
+
+    @Test
+    void repeatedLoginsOfAUserBecomeOneRowWithTheLatest() {
+        recorder.record(7L, NOW);
+        recorder.record(7L, NOW.plusMinutes(1));
+        recorder.record(8L, NOW);
+
+        recorder.flush();
+
+        assertThat(writes).hasSize(1);
+        assertThat(writes.get(0)).containsExactlyInAnyOrder(Map.entry(7L, NOW.plusMinutes(1)), Map.entry(8L, NOW));
+        assertThat(recorder.pending(7L)).isEmpty();
+        assertThat(meterRegistry.get("auth.last-login.flushed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void olderLoginArrivingLateNeverReplacesANewerOne() {
+        recorder.record(7L, NOW.plusMinutes(1));
+        recorder.record(7L, NOW);
+
+        assertThat(recorder.pending(7L)).contains(NOW.plusMinutes(1));
+
+        recorder.flush();
+
+        assertThat(writes.get(0)).containsExactly(Map.entry(7L, NOW.plusMinutes(1)));
+    }
+
+    @Test
+    void loginDuringTheWriteStaysPendingForTheNextFlush() {
+        recorder.record(7L, NOW);
+        doAnswer(invocation -> {
+            writes.add(List.copyOf(invocation.<List<Map.Entry<Long, LocalDateTime>>>getArgument(0)));
+            recorder.record(7L, NOW.plusSeconds(2));
+            return null;
+        }).doAnswer(invocation -> {
+            writes.add(List.copyOf(invocation.<List<Map.Entry<Long, LocalDateTime>>>getArgument(0)));
+            return null;
+        }).when(repository).updateLastLogins(any());
+
+        recorder.flush();
+
+        assertThat(recorder.pending(7L)).contains(NOW.plusSeconds(2));
+
+        recorder.flush();
+
+        assertThat(writes).containsExactly(
+                List.of(Map.entry(7L, NOW)),
+                List.of(Map.entry(7L, NOW.plusSeconds(2))));
+        assertThat(recorder.pending(7L)).isEmpty();
+    }
+
+    @Test
+    void failedWriteKeepsTheLoginsForTheNextFlush() {
+        recorder.record(7L, NOW);
+        doAnswer(invocation -> {
+            throw new QueryTimeoutException("timeout");
+        }).doAnswer(invocation -> {
+            writes.add(List.copyOf(invocation.<List<Map.Entry<Long, LocalDateTime>>>getArgument(0)));
+            return null;
+        }).when(repository).updateLastLogins(any());
+
+        recorder.flush();
+
+        assertThat(recorder.pending(7L)).contains(NOW);
+        assertThat(meterRegistry.get("auth.last-login.flushed").counter().count()).isZero();
+
+        recorder.flush();
+
+        assertThat(writes).containsExactly(List.of(Map.entry(7L, NOW)));
+        assertThat(recorder.pending(7L)).isEmpty();
+    }
+
+    @Test
+    void splitsTheFlushIntoBatches() {
+        ReflectionTestUtils.setField(recorder, "batchSize", 2);
+        for (long id = 1; id <= 5; id++) {
+            recorder.record(id, NOW);
+        }
+
+        recorder.flush();
+
+        assertThat(writes).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(meterRegistry.get("auth.last-login.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void emptyFlushDoesNotTouchTheDatabase() {
+        recorder.flush();
+
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,165 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import edu.unifor.br.distrischool.authservice.entity.MailDeadLetter;
+import edu.unifor.br.distrischool.authservice.entity.MailType;
+import edu.unifor.br.distrischool.authservice.entity.TokenPurpose;
+import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.repository.MailDeadLetterRepository;
+import edu.unifor.br.distrischool.authservice.repository.UserRepository;
+import edu.unifor.br.distrischool.authservice.support.NoOpTransactionManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MailDeadLetterReplayerTest {
+
+    private final MailDeadLetterRepository deadLetterRepository = mock(MailDeadLetterRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserTokenService userTokenService = mock(UserTokenService.class);
+    private final EmailService emailService = mock(EmailService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final User user = User.builder().id(7L).email("aluno@unifor.br").emailVerified(false).build();
+
+    private MailDeadLetterReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        replayer = new MailDeadLetterReplayer(deadLetterRepository, userRepository, userTokenService, emailService,
+                new NoOpTransactionManager(), meterRegistry);
+        ReflectionTestUtils.setField(replayer, "batchSize", 100);
+        ReflectionTestUtils.setField(replayer, "maxReplays", 3);
+        ReflectionTestUtils.setField(replayer, "passwordResetTtl", Duration.ofHours(1));
+        when(userRepository.findByEmail("aluno@unifor.br")).thenReturn(Optional.of(user));
+        when(userTokenService.issue(any(), any())).thenReturn("fresh-token");
+    }
+
+    @Test
+    void replaysAPasswordResetWhileTheOriginalTokenWouldStillBeValid() {
+        LocalDateTime requestedAt = LocalDateTime.now().minusMinutes(30);
+        MailDeadLetter deadLetter = deadLetter(MailType.PASSWORD_RESET, requestedAt, 1);
+        when(deadLetterRepository.lockReplayable(anyInt(), anyInt())).thenReturn(List.of(deadLetter));
+
+        replayer.replay();
+
+        verify(userTokenService).issue(user, TokenPurpose.PASSWORD_RESET);
+        verify(emailService).sendPasswordResetEmail("aluno@unifor.br", "fresh-token", 2, requestedAt);
+        verify(deadLetterRepository).deleteAllInBatch(List.of(deadLetter));
+        assertThat(meterRegistry.get("auth.mail.replayed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsAPasswordResetRequestedLongerAgoThanTheTokenLifetime() {
+        MailDeadLetter deadLetter = deadLetter(MailType.PASSWORD_RESET, LocalDateTime.now().minusHours(2), 0);
+        when(deadLetterRepository.lockReplayable(anyInt(), anyInt())).thenReturn(List.of(deadLetter));
+
+        replayer.replay();
+
+        verifyNoInteractions(userTokenService, emailService);
+        verify(deadLetterRepository).deleteAllInBatch(List.of(deadLetter));
+        assertThat(discarded("expired")).isEqualTo(1);
+    }
+
+    @Test
+    void skipsAPasswordResetWhenTheUserAlreadyAskedForANewerLink() {
+        LocalDateTime requestedAt = LocalDateTime.now().minusMinutes(30);
+        MailDeadLetter deadLetter = deadLetter(MailType.PASSWORD_RESET, requestedAt, 0);
+        when(deadLetterRepository.lockReplayable(anyInt(), anyInt())).thenReturn(List.of(deadLetter));
+        when(userTokenService.hasTokenIssuedAfter(user, TokenPurpose.PASSWORD_RESET, requestedAt)).thenReturn(true);
+
+        replayer.replay();
+
+        // O link que o usuário já recebeu continua valendo
+        verify(userTokenService, never()).issue(any(), any());
+        verify(emailService, never()).sendPasswordResetEmail(any(), any(), anyInt(), any());
+        verify(deadLetterRepository).deleteAllInBatch(List.of(deadLetter));
+        assertThat(discarded("obsolete")).isEqualTo(1);
+    }
+
+    @Test
+    void skipsAnAccountCreatedMailWhenTheUserAlreadyAskedForAResetLink() {
+        LocalDateTime requestedAt = LocalDateTime.now().minusDays(1);
+        when(deadLetterRepository.lockReplayable(anyInt(), anyInt())).thenReturn(List.of(
+                deadLetter(MailType.ACCOUNT_CREATED, requestedAt, 0)));
+        when(userTokenService.hasTokenIssuedAfter(user, TokenPurpose.PASSWORD_RESET, requestedAt)).thenReturn(true);
+
+        replayer.replay();
+
+        verify(userTokenService, never()).issue(any(), any());
+        verify(emailService, never()).sendAccountCreatedEmail(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void tokenOfAFailedReplayDoesNotCountAsANewerRequest() {
+        LocalDateTime requestedAt = LocalDateTime.now().minusMinutes(30);
+        LocalDateTime deadLetteredAgainAt = LocalDateTime.now().minusMinutes(5);
+        MailDeadLetter deadLetter = deadLetter(MailType.PASSWORD_RESET, requestedAt, 1);
+        deadLetter.setCreatedAt(deadLetteredAgainAt);
+        when(deadLetterRepository.lockReplayable(anyInt(), anyInt())).thenReturn(List.of(deadLetter));
+        // O reenvio anterior emitiu um token depois do pedido, mas antes de falhar de novo
+        when(userTokenService.hasTokenIssuedAfter(user, TokenPurpose.PASSWORD_RESET, requestedAt)).thenReturn(true);
+
+        replayer.replay();
+
+        verify(userTokenService).hasTokenIssuedAfter(user, TokenPurpose.PASSWORD_RESET, deadLetteredAgainAt);
+        verify(emailService).sendPasswordResetEmail("aluno@unifor.br", "fresh-token", 2, requestedAt);
+    }
+
+    @Test
+    void oldVerificationAndAccountMailsAreStillReplayed() {
+        LocalDateTime requestedAt = LocalDateTime.now().minusDays(1);
+        when(deadLetterRepository.lockReplayable(anyInt(), anyInt())).thenReturn(List.of(
+                deadLetter(MailType.EMAIL_VERIFICATION, requestedAt, 0),
+                deadLetter(MailType.ACCOUNT_CREATED, requestedAt, 0)));
+
+        replayer.replay();
+
+        verify(emailService).sendVerificationEmail("aluno@unifor.br", "fresh-token", 1, requestedAt);
+        verify(emailService).sendAccountCreatedEmail("aluno@unifor.br", "fresh-token", 1, requestedAt);
+        assertThat(discarded("expired")).isZero();
+    }
+
+    @Test
+    void discardsVerificationOfAnAlreadyVerifiedUser() {
+        user.setEmailVerified(true);
+        when(deadLetterRepository.lockReplayable(anyInt(), anyInt())).thenReturn(List.of(
+                deadLetter(MailType.EMAIL_VERIFICATION, LocalDateTime.now(), 0)));
+
+        replayer.replay();
+
+        verify(emailService, never()).sendVerificationEmail(any(), any(), anyInt(), any());
+        verify(userTokenService, never()).issue(any(), eq(TokenPurpose.EMAIL_VERIFICATION));
+        assertThat(discarded("obsolete")).isEqualTo(1);
+    }
+
+    private static MailDeadLetter deadLetter(MailType type, LocalDateTime requestedAt, int replays) {
+        return MailDeadLetter.builder()
+                .recipient("aluno@unifor.br")
+                .subject("assunto")
+                .mailType(type)
+                .attempts(5)
+                .replays(replays)
+                .requestedAt(requestedAt)
+                .build();
+    }
+
+    private double discarded(String reason) {
+        return meterRegistry.get("auth.mail.replay.discarded").tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,195 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import edu.unifor.br.distrischool.authservice.entity.MailDeadLetter;
+import edu.unifor.br.distrischool.authservice.entity.MailType;
+import edu.unifor.br.distrischool.authservice.repository.MailDeadLetterRepository;
+import edu.unifor.br.distrischool.authservice.support.NoOpTransactionManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MailDispatcherTest {
+
+    private final JavaMailSender mailSender = mock(JavaMailSender.class);
+    private final MailDeadLetterRepository deadLetterRepository = mock(MailDeadLetterRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TransactionTemplate transaction = NoOpTransactionManager.template();
+
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new MailDispatcher(mailSender, new TaskExecutorAdapter(Runnable::run), deadLetterRepository,
+                new NoOpTransactionManager(), meterRegistry, 2);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoff", Duration.ZERO);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoff", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(dispatcher, "shutdownTimeout", Duration.ofSeconds(5));
+        dispatcher.start();
+    }
+
+    @Test
+    void sendsOnlyAfterTheTransactionCommits() {
+        transaction.executeWithoutResult(status -> {
+            dispatcher.dispatchAfterCommit(message("aluno@unifor.br"), MailType.EMAIL_VERIFICATION);
+            dispatcher.drain();
+            verify(mailSender, never()).send(any(SimpleMailMessage[].class));
+        });
+
+        dispatcher.drain();
+
+        verify(mailSender).send(any(SimpleMailMessage[].class));
+        assertThat(counter("auth.mail.sent")).isEqualTo(1);
+    }
+
+    @Test
+    void rolledBackTransactionSendsNothing() {
+        transaction.executeWithoutResult(status -> {
+            dispatcher.dispatchAfterCommit(message("aluno@unifor.br"), MailType.EMAIL_VERIFICATION);
+            status.setRollbackOnly();
+        });
+
+        dispatcher.drain();
+
+        verify(mailSender, never()).send(any(SimpleMailMessage[].class));
+    }
+
+    @Test
+    void retriesUntilMaxAttemptsThenDeadLettersWithoutTheBody() throws InterruptedException {
+        doThrow(new MailSendException("SMTP fora")).when(mailSender).send(any(SimpleMailMessage[].class));
+        LocalDateTime requestedAt = LocalDateTime.now().minusMinutes(5);
+        dispatcher.dispatchAfterCommit(message("aluno@unifor.br"), MailType.PASSWORD_RESET, 1, requestedAt);
+
+        drainRepeatedly(5);
+
+        verify(mailSender, times(3)).send(any(SimpleMailMessage[].class));
+        assertThat(counter("auth.mail.retried")).isEqualTo(2);
+        MailDeadLetter deadLetter = savedDeadLetter();
+        assertThat(deadLetter.getRecipient()).isEqualTo("aluno@unifor.br");
+        assertThat(deadLetter.getMailType()).isEqualTo(MailType.PASSWORD_RESET);
+        assertThat(deadLetter.getAttempts()).isEqualTo(3);
+        assertThat(deadLetter.getReplays()).isEqualTo(1);
+        assertThat(deadLetter.getRequestedAt()).isEqualTo(requestedAt);
+        assertThat(deadLetter.getLastError()).isEqualTo("SMTP fora");
+        assertThat(counter("auth.mail.dead-lettered")).isEqualTo(1);
+    }
+
+    @Test
+    void partialFailureRetriesOnlyTheRejectedMessages() throws InterruptedException {
+        SimpleMailMessage accepted = message("aluno@unifor.br");
+        SimpleMailMessage rejected = message("invalido@unifor.br");
+        doThrow(new MailSendException(Map.of(rejected, new IllegalStateException("550 mailbox unavailable"))))
+                .doNothing()
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+        dispatcher.dispatchAfterCommit(accepted, MailType.ACCOUNT_CREATED);
+        dispatcher.dispatchAfterCommit(rejected, MailType.ACCOUNT_CREATED);
+
+        drainRepeatedly(3);
+
+        ArgumentCaptor<SimpleMailMessage[]> batches = ArgumentCaptor.forClass(SimpleMailMessage[].class);
+        verify(mailSender, times(2)).send(batches.capture());
+        assertThat(batches.getAllValues().get(1)).containsExactly(rejected);
+        assertThat(counter("auth.mail.sent")).isEqualTo(2);
+        assertThat(counter("auth.mail.retried")).isEqualTo(1);
+        verify(deadLetterRepository, never()).save(any());
+    }
+
+    @Test
+    void retryWaitsForTheBackoff() throws InterruptedException {
+        ReflectionTestUtils.setField(dispatcher, "initialBackoff", Duration.ofHours(1));
+        doThrow(new MailSendException("SMTP fora")).when(mailSender).send(any(SimpleMailMessage[].class));
+        dispatcher.dispatchAfterCommit(message("aluno@unifor.br"), MailType.EMAIL_VERIFICATION);
+
+        drainRepeatedly(3);
+
+        verify(mailSender, times(1)).send(any(SimpleMailMessage[].class));
+        verify(deadLetterRepository, never()).save(any());
+    }
+
+    @Test
+    void fullQueueGoesStraightToTheDeadLetter() {
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 1);
+
+        dispatcher.dispatchAfterCommit(message("aluno@unifor.br"), MailType.EMAIL_VERIFICATION);
+        dispatcher.dispatchAfterCommit(message("professor@unifor.br"), MailType.EMAIL_VERIFICATION);
+
+        assertThat(savedDeadLetter().getRecipient()).isEqualTo("professor@unifor.br");
+        assertThat(savedDeadLetter().getLastError()).isEqualTo("Fila de envio cheia");
+    }
+
+    @Test
+    void shutdownSendsWhatIsWaitingForBackoffAndDeadLettersWhatStillFails() throws InterruptedException {
+        ReflectionTestUtils.setField(dispatcher, "initialBackoff", Duration.ofHours(1));
+        SimpleMailMessage flaky = message("aluno@unifor.br");
+        SimpleMailMessage broken = message("invalido@unifor.br");
+        doThrow(new MailSendException("SMTP fora"))
+                .doThrow(new MailSendException(Map.of(broken, new IllegalStateException("550"))))
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+        dispatcher.dispatchAfterCommit(flaky, MailType.EMAIL_VERIFICATION);
+        dispatcher.dispatchAfterCommit(broken, MailType.EMAIL_VERIFICATION);
+        dispatcher.drain();
+
+        dispatcher.stop();
+
+        verify(mailSender, times(2)).send(any(SimpleMailMessage[].class));
+        assertThat(savedDeadLetter().getRecipient()).isEqualTo("invalido@unifor.br");
+        assertThat(counter("auth.mail.dead-lettered")).isEqualTo(1);
+    }
+
+    @Test
+    void deadLetterWriteFailureDoesNotPropagate() {
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 0);
+        doThrow(new IllegalStateException("banco fora")).when(deadLetterRepository).save(any());
+
+        dispatcher.dispatchAfterCommit(message("aluno@unifor.br"), MailType.EMAIL_VERIFICATION);
+
+        assertThat(counter("auth.mail.dead-lettered")).isZero();
+    }
+
+    /** Backoff zero: a mensagem reenfileirada fica pronta logo em seguida. */
+    private void drainRepeatedly(int times) throws InterruptedException {
+        for (int i = 0; i < times; i++) {
+            dispatcher.drain();
+            Thread.sleep(5);
+        }
+    }
+
+    private MailDeadLetter savedDeadLetter() {
+        ArgumentCaptor<MailDeadLetter> captor = ArgumentCaptor.forClass(MailDeadLetter.class);
+        verify(deadLetterRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private static SimpleMailMessage message(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(to);
+        message.setSubject("assunto");
+        message.setText("corpo com link e token");
+        return message;
+    }
+}
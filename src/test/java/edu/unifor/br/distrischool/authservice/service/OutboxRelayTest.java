@@ -0,0 +1,202 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.unifor.br.distrischool.authservice.dto.UserEvent;
+import edu.unifor.br.distrischool.authservice.entity.OutboxEvent;
+import edu.unifor.br.distrischool.authservice.repository.OutboxEventRepository;
+import edu.unifor.br.distrischool.authservice.support.NoOpTransactionManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.kafka.KafkaException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    private final KafkaEventService kafkaEventService = mock(KafkaEventService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> sent = new ArrayList<>();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(repository, kafkaEventService, new ObjectMapper(), new NoOpTransactionManager(), meterRegistry);
+        ReflectionTestUtils.setField(relay, "batchSize", 3);
+        ReflectionTestUtils.setField(relay, "sendTimeout", Duration.ofMillis(200));
+        ReflectionTestUtils.setField(relay, "claimTimeout", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(relay, "maxRunTime", Duration.ofSeconds(5));
+        when(kafkaEventService.send(any(), any(), any())).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(1) + ":" + invocation.<UserEvent>getArgument(2).getEventType());
+            return CompletableFuture.completedFuture(null);
+        });
+        when(repository.lockNextBatch(anyInt(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void publishesTheClaimedBatchInIdOrderAndDeletesIt() {
+        when(repository.lockNextBatch(eq(3), any())).thenReturn(List.of(
+                event(1L, "7", "user.created"),
+                event(2L, "8", "user.created"),
+                event(3L, "7", "user.updated"))).thenReturn(List.of());
+
+        relay.relay();
+
+        // Eventos da mesma chave saem na ordem em que foram gravados
+        assertThat(sent).containsExactly("7:user.created", "8:user.created", "7:user.updated");
+        InOrder order = inOrder(repository, kafkaEventService);
+        order.verify(repository).claim(eq(List.of(1L, 2L, 3L)), any());
+        order.verify(kafkaEventService, times(3)).send(any(), any(), any());
+        order.verify(repository).deleteByIds(List.of(1L, 2L, 3L));
+        assertThat(meterRegistry.get("auth.outbox.published").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void claimLastsTheConfiguredTimeout() {
+        when(repository.lockNextBatch(eq(3), any())).thenReturn(List.of(event(1L, "7", "user.created")));
+
+        relay.relay();
+
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> until = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).lockNextBatch(eq(3), now.capture());
+        verify(repository).claim(eq(List.of(1L)), until.capture());
+        assertThat(Duration.between(now.getValue(), until.getValue())).isEqualTo(Duration.ofSeconds(60));
+        assertThat(until.getValue()).isCloseTo(LocalDateTime.now().plusSeconds(60), within(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void failedSendReleasesTheClaimAndKeepsTheBatch() {
+        when(repository.lockNextBatch(eq(3), any())).thenReturn(List.of(
+                event(1L, "7", "user.created"),
+                event(2L, "7", "user.updated")));
+        doReturn(CompletableFuture.completedFuture(null))
+                .doReturn(CompletableFuture.failedFuture(new IllegalStateException("broker fora")))
+                .when(kafkaEventService).send(any(), eq("7"), any());
+
+        relay.relay();
+
+        verify(repository).claim(List.of(1L, 2L), null);
+        verify(repository, never()).deleteByIds(any());
+        assertThat(meterRegistry.get("auth.outbox.failed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void sendThatNeverCompletesTimesOutAndReleasesTheClaim() {
+        when(repository.lockNextBatch(eq(3), any())).thenReturn(List.of(event(1L, "7", "user.created")));
+        doReturn(new CompletableFuture<>()).when(kafkaEventService).send(any(), any(), any());
+
+        relay.relay();
+
+        verify(repository).claim(List.of(1L), null);
+        verify(repository, never()).deleteByIds(any());
+    }
+
+    @Test
+    void firstFailedSendStopsTheRestOfTheBatch() {
+        when(repository.lockNextBatch(eq(3), any())).thenReturn(List.of(
+                event(1L, "7", "user.created"),
+                event(2L, "8", "user.created"),
+                event(3L, "9", "user.created")));
+        // Sem metadados o producer bloqueia até max.block.ms e o KafkaTemplate relança
+        doThrow(new KafkaException("Topic user.created not present in metadata after 5000 ms."))
+                .when(kafkaEventService).send(any(), eq("7"), any());
+
+        relay.relay();
+
+        verify(kafkaEventService, times(1)).send(any(), any(), any());
+        verify(repository).claim(List.of(1L, 2L, 3L), null);
+        verify(repository, never()).deleteByIds(any());
+    }
+
+    @Test
+    void stopsSendingOnceTheSendTimeoutIsSpent() {
+        ReflectionTestUtils.setField(relay, "sendTimeout", Duration.ZERO);
+        when(repository.lockNextBatch(eq(3), any())).thenReturn(List.of(
+                event(1L, "7", "user.created"),
+                event(2L, "8", "user.created")));
+
+        relay.relay();
+
+        assertThat(sent).containsExactly("7:user.created");
+        verify(repository).claim(List.of(1L, 2L), null);
+    }
+
+    @Test
+    void runEndsAtMaxRunTimeEvenWithBacklog() {
+        ReflectionTestUtils.setField(relay, "maxRunTime", Duration.ZERO);
+        when(repository.lockNextBatch(eq(3), any())).thenReturn(
+                List.of(event(1L, "1", "user.created"), event(2L, "2", "user.created"), event(3L, "3", "user.created")));
+
+        relay.relay();
+
+        verify(repository, times(1)).lockNextBatch(anyInt(), any());
+        verify(repository).deleteByIds(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void unreadablePayloadIsDroppedWithoutBlockingTheBatch() {
+        OutboxEvent broken = OutboxEvent.builder().id(1L).topic("user.created").eventKey("7").payload("{not json").build();
+        when(repository.lockNextBatch(eq(3), any())).thenReturn(List.of(broken, event(2L, "8", "user.created")));
+
+        relay.relay();
+
+        assertThat(sent).containsExactly("8:user.created");
+        verify(repository).deleteByIds(List.of(1L, 2L));
+        assertThat(meterRegistry.get("auth.outbox.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsDrainingWhileBatchesComeBackFull() {
+        when(repository.lockNextBatch(eq(3), any()))
+                .thenReturn(List.of(event(1L, "1", "user.created"), event(2L, "2", "user.created"), event(3L, "3", "user.created")))
+                .thenReturn(List.of(event(4L, "4", "user.created")))
+                .thenReturn(List.of(event(5L, "5", "user.created")));
+
+        relay.relay();
+
+        assertThat(sent).hasSize(4);
+        verify(repository).deleteByIds(List.of(1L, 2L, 3L));
+        verify(repository).deleteByIds(List.of(4L));
+    }
+
+    @Test
+    void emptyOutboxClaimsNothing() {
+        relay.relay();
+
+        verify(repository, never()).claim(any(), any());
+        verify(repository, never()).deleteByIds(any());
+    }
+
+    private static OutboxEvent event(Long id, String key, String type) {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic(type)
+                .eventKey(key)
+                .payload("{\"eventType\":\"" + type + "\",\"userId\":" + key + "}")
+                .build();
+    }
+}
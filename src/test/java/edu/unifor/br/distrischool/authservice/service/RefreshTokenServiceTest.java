@@ -0,0 +1,189 @@
+package edu.unifor.br.distrischool.authservice.service;
+
+import edu.unifor.br.distrischool.authservice.entity.RefreshToken;
+import edu.unifor.br.distrischool.authservice.entity.User;
+import edu.unifor.br.distrischool.authservice.exception.InvalidTokenException;
+import edu.unifor.br.distrischool.authservice.repository.RefreshTokenFamilyRepository;
+import edu.unifor.br.distrischool.authservice.repository.RefreshTokenRepository;
+import edu.unifor.br.distrischool.authservice.support.NoOpTransactionManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+
+    private final RefreshTokenRepository tokenRepository = mock(RefreshTokenRepository.class);
+    private final RefreshTokenFamilyRepository familyRepository = mock(RefreshTokenFamilyRepository.class);
+    private final JwtService jwtService = mock(JwtService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TransactionTemplate transaction = NoOpTransactionManager.template();
+
+    private final User user = User.builder().id(7L).email("aluno@unifor.br").build();
+    private final UUID familyId = UUID.randomUUID();
+
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtService.getRefreshExpirationTime()).thenReturn(86_400_000L);
+        when(jwtService.generateRefreshToken(any(), any(), any(), any())).thenReturn("next-refresh-token");
+        service = new RefreshTokenService(tokenRepository, familyRepository, jwtService, meterRegistry, 1000);
+    }
+
+    @Test
+    void rotatesAnActiveToken() {
+        VerifiedToken token = refreshToken();
+        when(tokenRepository.markUsedIfActive(eq(jti(token)), any())).thenReturn(1);
+
+        assertThat(inTransaction(() -> service.rotate(token, user))).isEqualTo("next-refresh-token");
+
+        verify(tokenRepository).insert(any(), eq(familyId), any());
+        verify(familyRepository, never()).revoke(any(), any());
+    }
+
+    @Test
+    void failedRotationLeavesTheOldTokenUsable() {
+        VerifiedToken token = refreshToken();
+        // O rollback desfaz o used_at, então o banco aceita o token de novo
+        when(tokenRepository.markUsedIfActive(eq(jti(token)), any())).thenReturn(1);
+        doThrow(new DataIntegrityViolationException("insert falhou"))
+                .doNothing()
+                .when(tokenRepository).insert(any(), any(), any());
+
+        assertThatThrownBy(() -> inTransaction(() -> service.rotate(token, user)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(inTransaction(() -> service.rotate(token, user))).isEqualTo("next-refresh-token");
+        verify(familyRepository, never()).revoke(any(), any());
+        assertThat(reuseCount()).isZero();
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheFamilyWithoutQueryingTheToken() {
+        VerifiedToken token = refreshToken();
+        when(tokenRepository.markUsedIfActive(eq(jti(token)), any())).thenReturn(1);
+        inTransaction(() -> service.rotate(token, user));
+
+        assertThatThrownBy(() -> inTransaction(() -> service.rotate(token, user)))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Refresh token já utilizado");
+
+        verify(tokenRepository, times(1)).markUsedIfActive(any(), any());
+        verify(familyRepository).revoke(eq(familyId), any());
+        assertThat(reuseCount()).isEqualTo(1);
+
+        // O sucessor emitido na rotação legítima cai junto com a família
+        VerifiedToken successor = refreshToken();
+        assertThatThrownBy(() -> inTransaction(() -> service.rotate(successor, user)))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Refresh token revogado");
+        verify(tokenRepository, never()).markUsedIfActive(eq(jti(successor)), any());
+    }
+
+    @Test
+    void detectsReuseFromTheDatabaseWhenTheHotSetMissed() {
+        VerifiedToken token = refreshToken();
+        when(tokenRepository.markUsedIfActive(any(), any())).thenReturn(0);
+        when(tokenRepository.findById(jti(token))).thenReturn(Optional.of(RefreshToken.builder()
+                .jti(jti(token))
+                .familyId(familyId)
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .usedAt(LocalDateTime.now().minusMinutes(1))
+                .build()));
+
+        assertThatThrownBy(() -> inTransaction(() -> service.rotate(token, user)))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Refresh token já utilizado");
+
+        verify(familyRepository).revoke(eq(familyId), any());
+        assertThat(reuseCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsUnknownTokens() {
+        VerifiedToken token = refreshToken();
+        when(tokenRepository.markUsedIfActive(any(), any())).thenReturn(0);
+        when(tokenRepository.findById(any())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> inTransaction(() -> service.rotate(token, user)))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Refresh token desconhecido");
+        verify(familyRepository, never()).revoke(any(), any());
+    }
+
+    @Test
+    void rolledBackLogoutDoesNotRevokeTheFamilyInMemory() {
+        VerifiedToken token = refreshToken();
+        transaction.executeWithoutResult(status -> {
+            service.revoke(token);
+            status.setRollbackOnly();
+        });
+        when(tokenRepository.markUsedIfActive(eq(jti(token)), any())).thenReturn(1);
+
+        assertThat(inTransaction(() -> service.rotate(token, user))).isEqualTo("next-refresh-token");
+    }
+
+    @Test
+    void committedLogoutRejectsTheFamilyWithoutQueryingTheDatabase() {
+        VerifiedToken token = refreshToken();
+        transaction.executeWithoutResult(status -> service.revoke(token));
+
+        assertThatThrownBy(() -> inTransaction(() -> service.rotate(refreshToken(), user)))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Refresh token revogado");
+        verify(tokenRepository, never()).markUsedIfActive(any(), any());
+    }
+
+    /**
+     * Como {@code @Transactional(noRollbackFor = InvalidTokenException.class)}:
+     * a recusa confirma a transação e só então é propagada.
+     */
+    private <T> T inTransaction(Supplier<T> action) {
+        InvalidTokenException[] rejected = new InvalidTokenException[1];
+        T result = transaction.execute(status -> {
+            try {
+                return action.get();
+            } catch (InvalidTokenException e) {
+                rejected[0] = e;
+                return null;
+            }
+        });
+        if (rejected[0] != null) {
+            throw rejected[0];
+        }
+        return result;
+    }
+
+    private VerifiedToken refreshToken() {
+        return new VerifiedToken("aluno@unifor.br", List.of(), Instant.now().plusSeconds(3600), Instant.now(),
+                UUID.randomUUID().toString(), "refresh", familyId.toString());
+    }
+
+    private static UUID jti(VerifiedToken token) {
+        return UUID.fromString(token.id());
+    }
+
+    private double reuseCount() {
+        return meterRegistry.get("auth.refresh-token.reuse").counter().count();
+    }
+}
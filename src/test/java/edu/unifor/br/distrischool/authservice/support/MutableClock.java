@@ -0,0 +1,52 @@
+package edu.unifor.br.distrischool.authservice.support;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Relógio que só anda quando o teste manda, para testar janelas e expirações
+ * sem {@code Thread.sleep}. {@link #ticker()} acompanha o mesmo tempo para os
+ * caches Caffeine.
+ */
+public class MutableClock extends Clock {
+
+    private volatile long nanos;
+    private final Instant origin;
+
+    public MutableClock(Instant origin) {
+        this.origin = origin;
+    }
+
+    public void advance(Duration duration) {
+        nanos += duration.toNanos();
+    }
+
+    public Ticker ticker() {
+        return () -> nanos;
+    }
+
+    @Override
+    public Instant instant() {
+        return origin.plusNanos(nanos);
+    }
+
+    @Override
+    public long millis() {
+        return instant().toEpochMilli();
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+}
@@ -0,0 +1,35 @@
+package edu.unifor.br.distrischool.authservice.support;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Gerenciador de transações sem recurso: só dispara as sincronizações
+ * ({@code afterCommit}, {@code afterCompletion}) como o gerenciador real, para
+ * testar o que acontece no commit e no rollback sem banco.
+ */
+public class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+    public static TransactionTemplate template() {
+        return new TransactionTemplate(new NoOpTransactionManager());
+    }
+
+    @Override
+    protected Object doGetTransaction() {
+        return new Object();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+}